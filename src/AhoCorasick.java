@@ -0,0 +1,153 @@
+import java.util.Arrays;
+
+/**
+ * Aho-Corasick automaton: finds every occurrence of every pattern of a set in one
+ * pass over the text, in O(n + number of matches) regardless of the set size.
+ *
+ * The automaton is stored as a full DFA in one dense int array: one row per state
+ * and one column per character class. Only characters that occur in some pattern
+ * get a class (through a CharIntMap); every other character is class 0, which
+ * always leads back to the root, so rows stay as narrow as the patterns' alphabet.
+ * Failure links are folded into the rows while building, so the search does one
+ * array read per text character.
+ */
+public class AhoCorasick extends MultiPatternMatcher {
+    private static final int ROOT = 0;
+
+    private final CharIntMap charClass; // Character -> column, 0 for characters in no pattern
+    private final int width; // Number of columns (character classes)
+    private final int[] delta; // delta[state * width + class] = next state
+    private final int[] terminal; // Pattern id ending at each state, -1 if none
+    private final int[] outputLink; // Nearest state on the failure chain with a terminal, -1 if none
+    private final int[] duplicate; // Next pattern id with the same string, -1 if none
+    private final int stateCount;
+
+    public AhoCorasick(String... patterns) {
+        super(patterns);
+
+        // Number the distinct characters of the set
+        CharIntMap classes = new CharIntMap(0);
+        int classCount = 1;
+        int totalLength = 0;
+        for (String pattern : this.patterns) {
+            totalLength += pattern.length();
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (classes.get(c) == 0) {
+                    classes.put(c, classCount++);
+                }
+            }
+        }
+        this.charClass = classes;
+        this.width = classCount;
+
+        // Build the trie directly in the dense rows (0 = no child yet)
+        int capacity = Math.min(totalLength + 1, 1024);
+        int[] rows = new int[capacity * width];
+        int[] ends = new int[capacity];
+        int[] same = new int[this.patterns.length];
+        Arrays.fill(ends, -1);
+        Arrays.fill(same, -1);
+        int states = 1;
+        for (int id = 0; id < this.patterns.length; id++) {
+            String pattern = this.patterns[id];
+            int state = ROOT;
+            for (int i = 0; i < pattern.length(); i++) {
+                int slot = state * width + charClass.get(pattern.charAt(i));
+                if (rows[slot] == 0) {
+                    if (states == capacity) {
+                        capacity = Math.min(totalLength + 1, capacity * 2);
+                        rows = Arrays.copyOf(rows, capacity * width);
+                        ends = Arrays.copyOf(ends, capacity);
+                        Arrays.fill(ends, states, capacity, -1);
+                    }
+                    rows[slot] = states++;
+                }
+                state = rows[slot];
+            }
+            if (ends[state] >= 0) {
+                // Same string as an earlier pattern: chain it behind the first id
+                int last = ends[state];
+                while (same[last] >= 0) {
+                    last = same[last];
+                }
+                same[last] = id;
+            } else {
+                ends[state] = id;
+            }
+        }
+
+        this.stateCount = states;
+        this.delta = states == capacity ? rows : Arrays.copyOf(rows, states * width);
+        this.terminal = states == capacity ? ends : Arrays.copyOf(ends, states);
+        this.duplicate = same;
+        this.outputLink = new int[states];
+        buildFailureTransitions();
+    }
+
+    /**
+     * Breadth-first pass that computes failure links and turns the trie into a DFA:
+     * a missing transition of state s on c becomes the transition of fail(s) on c.
+     * Rows of shallower states are complete by the time a deeper state reads them.
+     */
+    private void buildFailureTransitions() {
+        int[] fail = new int[stateCount];
+        int[] queue = new int[stateCount];
+        int head = 0;
+        int tail = 0;
+
+        outputLink[ROOT] = -1;
+        for (int c = 0; c < width; c++) {
+            int child = delta[c];
+            if (child != ROOT) {
+                fail[child] = ROOT;
+                outputLink[child] = -1;
+                queue[tail++] = child;
+            }
+        }
+
+        while (head < tail) {
+            int state = queue[head++];
+            int row = state * width;
+            int failRow = fail[state] * width;
+            for (int c = 0; c < width; c++) {
+                int child = delta[row + c];
+                if (child != ROOT) {
+                    int f = delta[failRow + c];
+                    fail[child] = f;
+                    outputLink[child] = terminal[f] >= 0 ? f : outputLink[f];
+                    queue[tail++] = child;
+                } else {
+                    delta[row + c] = delta[failRow + c];
+                }
+            }
+        }
+    }
+
+    @Override
+    public void search(String text, MultiMatchSink sink) {
+        int n = text.length();
+        int state = ROOT;
+        for (int i = 0; i < n; i++) {
+            state = delta[state * width + charClass.get(text.charAt(i))];
+            // Longest match first, then shorter ones along the output links
+            for (int s = terminal[state] >= 0 ? state : outputLink[state]; s >= 0; s = outputLink[s]) {
+                for (int id = terminal[s]; id >= 0; id = duplicate[id]) {
+                    if (!sink.onMatch(id, i - patterns[id].length() + 1)) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    public int getStateCount() {
+        return stateCount;
+    }
+
+    @Override
+    public long estimatedSize() {
+        return super.estimatedSize() + charClass.estimatedSize()
+                + 4L * (delta.length + terminal.length + outputLink.length + duplicate.length);
+    }
+}
@@ -1,5 +1,4 @@
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 class Naive extends Solution {
     static {
@@ -11,8 +10,16 @@ class Naive extends Solution {
     }
 
     @Override
-    public String Solve(String text, String pattern) {
-        List<Integer> indices = new ArrayList<>();
+    public void Solve(String text, String pattern, MatchSink sink) {
+        search(text, pattern, sink, true);
+    }
+
+    @Override
+    public void SolveNonOverlapping(String text, String pattern, MatchSink sink) {
+        search(text, pattern, sink, false);
+    }
+
+    private void search(String text, String pattern, MatchSink sink, boolean overlapping) {
         int n = text.length();
         int m = pattern.length();
 
@@ -24,11 +31,14 @@ class Naive extends Solution {
                 }
             }
             if (j == m) {
-                indices.add(i);
+                if (!sink.onMatch(i)) {
+                    return;
+                }
+                if (!overlapping && m > 0) {
+                    i += m - 1; // Continue right after the match
+                }
             }
         }
-
-        return indicesToString(indices);
     }
 }
 
@@ -42,189 +52,1077 @@ class KMP extends Solution {
     }
 
     @Override
-    public String Solve(String text, String pattern) {
-        List<Integer> indices = new ArrayList<>();
-        int n = text.length();
-        int m = pattern.length();
+    public void Solve(String text, String pattern, MatchSink sink) {
+        compile(pattern).search(text, sink);
+    }
 
-        // Handle empty pattern - matches at every position
-        if (m == 0) {
-            for (int i = 0; i <= n; i++) {
-                indices.add(i);
+    @Override
+    public CompiledPattern compile(String pattern) {
+        return new Compiled(pattern, false);
+    }
+
+    @Override
+    public CompiledPattern compileIgnoreCase(String pattern) {
+        return new Compiled(pattern, true);
+    }
+
+    /**
+     * Pattern with its LPS table computed once
+     */
+    static class Compiled extends CompiledPattern {
+        private final boolean ignoreCase;
+        private final String target; // The pattern, case-folded when ignoring case
+        private final int[] lps;
+
+        Compiled(String pattern, boolean ignoreCase) {
+            super(pattern);
+            this.ignoreCase = ignoreCase;
+            this.target = ignoreCase ? CaseFolding.fold(pattern) : pattern;
+            // Compute LPS (Longest Proper Prefix which is also Suffix) array
+            this.lps = target.isEmpty() ? new int[0] : Lps.compute(target);
+        }
+
+        private char at(String text, int i) {
+            char c = text.charAt(i);
+            return ignoreCase ? CaseFolding.fold(c) : c;
+        }
+
+        @Override
+        public void search(String text, MatchSink sink) {
+            search(text, 0, text.length(), sink, true);
+        }
+
+        @Override
+        public void searchNonOverlapping(String text, MatchSink sink) {
+            search(text, 0, text.length(), sink, false);
+        }
+
+        @Override
+        public void search(String text, int from, int to, MatchSink sink) {
+            search(text, from, Math.min(text.length(), to + pattern.length() - 1), sink, true);
+        }
+
+        /**
+         * Search text[from, n) as if it were the whole text, reporting indices in text
+         */
+        private void search(String text, int from, int n, MatchSink sink, boolean overlapping) {
+            int m = pattern.length();
+
+            // Handle empty pattern - matches at every position
+            if (m == 0) {
+                for (int i = from; i <= n; i++) {
+                    if (!sink.onMatch(i)) {
+                        return;
+                    }
+                }
+                return;
+            }
+
+            int i = from; // index for text
+            int j = 0; // index for pattern
+
+            while (i < n) {
+                if (at(text, i) == target.charAt(j)) {
+                    i++;
+                    j++;
+                }
+
+                if (j == m) {
+                    if (!sink.onMatch(i - j)) {
+                        return;
+                    }
+                    // Non-overlapping: start over, nothing of the match may be reused
+                    j = overlapping ? lps[j - 1] : 0;
+                } else if (i < n && at(text, i) != target.charAt(j)) {
+                    if (j != 0) {
+                        j = lps[j - 1];
+                    } else {
+                        i++;
+                    }
+                }
             }
-            return indicesToString(indices);
         }
 
-        // Compute LPS (Longest Proper Prefix which is also Suffix) array
-        int[] lps = computeLPS(pattern);
+        @Override
+        public long estimatedSize() {
+            return super.estimatedSize() + 4L * lps.length;
+        }
+    }
+}
 
-        int i = 0; // index for text
-        int j = 0; // index for pattern
+/**
+ * Rabin-Karp with a polynomial rolling hash modulo the Mersenne prime 2^61-1.
+ * The base is drawn at random when the class loads, so no fixed input can force
+ * collisions; two different windows collide with probability about m / 2^61,
+ * which makes the character-by-character verification run almost only on real matches.
+ */
+class RabinKarp extends Solution {
+    static {
+        SUBCLASSES.add(RabinKarp.class);
+        System.out.println("RabinKarp registered.");
+    }
+
+    public RabinKarp() {
+    }
+
+    @Override
+    public void Solve(String text, String pattern, MatchSink sink) {
+        compile(pattern).search(text, sink);
+    }
+
+    @Override
+    public CompiledPattern compile(String pattern) {
+        return new Compiled(pattern, false);
+    }
+
+    @Override
+    public CompiledPattern compileIgnoreCase(String pattern) {
+        return new Compiled(pattern, true);
+    }
+
+    /**
+     * Pattern with its hash and h = BASE^(m-1) mod 2^61-1 computed once
+     */
+    static class Compiled extends CompiledPattern {
+        private final boolean ignoreCase;
+        private final String target; // The pattern, case-folded when ignoring case
+        private final long patternHash;
+        private final long h;
+
+        Compiled(String pattern, boolean ignoreCase) {
+            super(pattern);
+            this.ignoreCase = ignoreCase;
+            this.target = ignoreCase ? CaseFolding.fold(pattern) : pattern;
+            this.patternHash = RollingHash.hash(target, 0, target.length());
+            this.h = RollingHash.power(target.length() - 1);
+        }
+
+        private char at(String text, int i) {
+            char c = text.charAt(i);
+            return ignoreCase ? CaseFolding.fold(c) : c;
+        }
+
+        @Override
+        public void search(String text, MatchSink sink) {
+            search(text, 0, text.length(), sink, true);
+        }
 
-        while (i < n) {
-            if (text.charAt(i) == pattern.charAt(j)) {
-                i++;
-                j++;
+        @Override
+        public void searchNonOverlapping(String text, MatchSink sink) {
+            search(text, 0, text.length(), sink, false);
+        }
+
+        @Override
+        public void search(String text, int from, int to, MatchSink sink) {
+            search(text, from, Math.min(text.length(), to + pattern.length() - 1), sink, true);
+        }
+
+        /**
+         * Search text[from, n) as if it were the whole text, reporting indices in text
+         */
+        private void search(String text, int from, int n, MatchSink sink, boolean overlapping) {
+            int m = pattern.length();
+
+            // Handle empty pattern - matches at every position
+            if (m == 0) {
+                for (int i = from; i <= n; i++) {
+                    if (!sink.onMatch(i)) {
+                        return;
+                    }
+                }
+                return;
             }
 
-            if (j == m) {
-                indices.add(i - j);
-                j = lps[j - 1];
-            } else if (i < n && text.charAt(i) != pattern.charAt(j)) {
-                if (j != 0) {
-                    j = lps[j - 1];
+            if (m > n - from) {
+                return;
+            }
+
+            // Calculate hash value for first window of text
+            long textHash = hashAt(text, from);
+
+            // Slide the pattern over text one by one
+            for (int i = from; i <= n - m; i++) {
+                // Hashes only collide by chance with probability ~m/2^61, so check characters one by one
+                if (patternHash == textHash && matchesAt(text, i)) {
+                    if (!sink.onMatch(i)) {
+                        return;
+                    }
+                    if (!overlapping) {
+                        // Jump past the match and hash the window after it from scratch
+                        i += m - 1;
+                        if (i + 1 <= n - m) {
+                            textHash = hashAt(text, i + 1);
+                        }
+                        continue;
+                    }
+                }
+
+                // Calculate hash value for next window
+                if (i < n - m) {
+                    textHash = RollingHash.roll(textHash, at(text, i), at(text, i + m), h);
+                }
+            }
+        }
+
+        private long hashAt(String text, int from) {
+            long hash = 0;
+            for (int i = from; i < from + target.length(); i++) {
+                hash = RollingHash.append(hash, at(text, i));
+            }
+            return hash;
+        }
+
+        private boolean matchesAt(String text, int s) {
+            if (!ignoreCase) {
+                return text.regionMatches(s, pattern, 0, pattern.length());
+            }
+            for (int j = 0; j < target.length(); j++) {
+                if (at(text, s + j) != target.charAt(j)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
+
+/**
+ * Boyer-Moore algorithm with the bad character and (strong) good suffix rules.
+ * Compares the window right to left and shifts by the larger of the two rules.
+ */
+class BoyerMoore extends Solution {
+    static {
+        SUBCLASSES.add(BoyerMoore.class);
+        System.out.println("BoyerMoore registered");
+    }
+
+    public BoyerMoore() {
+    }
+
+    @Override
+    public void Solve(String text, String pattern, MatchSink sink) {
+        compile(pattern).search(text, sink);
+    }
+
+    @Override
+    public CompiledPattern compile(String pattern) {
+        return new Compiled(pattern, false);
+    }
+
+    @Override
+    public CompiledPattern compileIgnoreCase(String pattern) {
+        return new Compiled(pattern, true);
+    }
+
+    /**
+     * Pattern with its bad character and good suffix tables
+     */
+    static class Compiled extends CompiledPattern {
+        private final boolean ignoreCase;
+        private final String target; // The pattern, case-folded when ignoring case
+        private final CharIntMap lastOccurrence; // Bad character rule: last index of each char, -1 if absent
+        private final int[] goodSuffix; // Shift when the mismatch happens at j-1 (index j), goodSuffix[0] after a full match
+
+        Compiled(String pattern, boolean ignoreCase) {
+            super(pattern);
+            this.ignoreCase = ignoreCase;
+            this.target = ignoreCase ? CaseFolding.fold(pattern) : pattern;
+            this.lastOccurrence = lastOccurrence(target);
+            this.goodSuffix = goodSuffixShifts(target);
+        }
+
+        private char at(String text, int i) {
+            char c = text.charAt(i);
+            return ignoreCase ? CaseFolding.fold(c) : c;
+        }
+
+        @Override
+        public void search(String text, MatchSink sink) {
+            search(text, 0, text.length(), sink, true);
+        }
+
+        @Override
+        public void searchNonOverlapping(String text, MatchSink sink) {
+            search(text, 0, text.length(), sink, false);
+        }
+
+        @Override
+        public void search(String text, int from, int to, MatchSink sink) {
+            search(text, from, Math.min(text.length(), to + pattern.length() - 1), sink, true);
+        }
+
+        /**
+         * Search text[from, n) as if it were the whole text, reporting indices in text
+         */
+        private void search(String text, int from, int n, MatchSink sink, boolean overlapping) {
+            int m = pattern.length();
+
+            // Handle empty pattern - matches at every position
+            if (m == 0) {
+                for (int i = from; i <= n; i++) {
+                    if (!sink.onMatch(i)) {
+                        return;
+                    }
+                }
+                return;
+            }
+
+            int s = from; // Shift of the pattern over the text
+            while (s <= n - m) {
+                int j = m - 1;
+                char c = 0;
+                while (j >= 0 && target.charAt(j) == (c = at(text, s + j))) {
+                    j--;
+                }
+                if (j < 0) {
+                    if (!sink.onMatch(s)) {
+                        return;
+                    }
+                    s += overlapping ? goodSuffix[0] : m;
                 } else {
-                    i++;
+                    s += Math.max(goodSuffix[j + 1], j - lastOccurrence.get(c));
                 }
             }
         }
 
-        return indicesToString(indices);
+        @Override
+        public long estimatedSize() {
+            return super.estimatedSize() + lastOccurrence.estimatedSize() + 4L * goodSuffix.length;
+        }
     }
 
-    private int[] computeLPS(String pattern) {
+    static CharIntMap lastOccurrence(String pattern) {
+        CharIntMap table = new CharIntMap(-1);
+        for (int i = 0; i < pattern.length(); i++) {
+            table.put(pattern.charAt(i), i);
+        }
+        return table;
+    }
+
+    /**
+     * Strong good suffix table. border[i] is the start of the widest border of pattern[i..m-1].
+     */
+    static int[] goodSuffixShifts(String pattern) {
         int m = pattern.length();
-        int[] lps = new int[m];
-        int len = 0;
-        int i = 1;
+        int[] shift = new int[m + 1];
+        int[] border = new int[m + 1];
 
-        lps[0] = 0;
+        // Case 1: the matched suffix occurs elsewhere in the pattern preceded by a different char
+        int i = m;
+        int j = m + 1;
+        border[i] = j;
+        while (i > 0) {
+            while (j <= m && pattern.charAt(i - 1) != pattern.charAt(j - 1)) {
+                if (shift[j] == 0) {
+                    shift[j] = j - i;
+                }
+                j = border[j];
+            }
+            i--;
+            j--;
+            border[i] = j;
+        }
 
-        while (i < m) {
-            if (pattern.charAt(i) == pattern.charAt(len)) {
-                len++;
-                lps[i] = len;
-                i++;
-            } else {
-                if (len != 0) {
-                    len = lps[len - 1];
+        // Case 2: only a prefix of the pattern matches a part of the matched suffix
+        j = border[0];
+        for (i = 0; i <= m; i++) {
+            if (shift[i] == 0) {
+                shift[i] = j;
+            }
+            if (i == j) {
+                j = border[j];
+            }
+        }
+        return shift;
+    }
+}
+
+/**
+ * Boyer-Moore with the Galil rule: after a full match the pattern shifts by its
+ * period p, and the first m-p characters of the new window are already known to
+ * match, so they are not compared again. This makes the search linear even for
+ * periodic patterns with many overlapping matches (e.g. "AAAA" in "AAAAAAAA").
+ */
+class BoyerMooreGalil extends Solution {
+    static {
+        SUBCLASSES.add(BoyerMooreGalil.class);
+        System.out.println("BoyerMooreGalil registered");
+    }
+
+    public BoyerMooreGalil() {
+    }
+
+    @Override
+    public void Solve(String text, String pattern, MatchSink sink) {
+        compile(pattern).search(text, sink);
+    }
+
+    @Override
+    public CompiledPattern compile(String pattern) {
+        return new Compiled(pattern);
+    }
+
+    static class Compiled extends CompiledPattern {
+        private final CharIntMap lastOccurrence;
+        private final int[] goodSuffix; // goodSuffix[0] is the period of the pattern
+
+        Compiled(String pattern) {
+            super(pattern);
+            this.lastOccurrence = BoyerMoore.lastOccurrence(pattern);
+            this.goodSuffix = BoyerMoore.goodSuffixShifts(pattern);
+        }
+
+        @Override
+        public void search(String text, MatchSink sink) {
+            search(text, 0, text.length(), sink, true);
+        }
+
+        @Override
+        public void searchNonOverlapping(String text, MatchSink sink) {
+            search(text, 0, text.length(), sink, false);
+        }
+
+        @Override
+        public void search(String text, int from, int to, MatchSink sink) {
+            search(text, from, Math.min(text.length(), to + pattern.length() - 1), sink, true);
+        }
+
+        /**
+         * Search text[from, n) as if it were the whole text, reporting indices in text
+         */
+        private void search(String text, int from, int n, MatchSink sink, boolean overlapping) {
+            int m = pattern.length();
+
+            // Handle empty pattern - matches at every position
+            if (m == 0) {
+                for (int i = from; i <= n; i++) {
+                    if (!sink.onMatch(i)) {
+                        return;
+                    }
+                }
+                return;
+            }
+
+            int period = goodSuffix[0];
+            int s = from;
+            int known = 0; // Number of leading window characters known to match (Galil rule)
+            while (s <= n - m) {
+                int j = m - 1;
+                char c = 0;
+                while (j >= known && pattern.charAt(j) == (c = text.charAt(s + j))) {
+                    j--;
+                }
+                if (j < known) {
+                    if (!sink.onMatch(s)) {
+                        return;
+                    }
+                    if (overlapping) {
+                        s += period;
+                        known = m - period;
+                    } else {
+                        s += m;
+                        known = 0;
+                    }
                 } else {
-                    lps[i] = 0;
-                    i++;
+                    s += Math.max(goodSuffix[j + 1], j - lastOccurrence.get(c));
+                    known = 0;
                 }
             }
         }
 
-        return lps;
+        @Override
+        public long estimatedSize() {
+            return super.estimatedSize() + lastOccurrence.estimatedSize() + 4L * goodSuffix.length;
+        }
     }
 }
 
-class RabinKarp extends Solution {
+/**
+ * Boyer-Moore-Horspool: only the bad character rule, always applied to the
+ * text character under the last pattern position
+ */
+class Horspool extends Solution {
     static {
-        SUBCLASSES.add(RabinKarp.class);
-        System.out.println("RabinKarp registered.");
+        SUBCLASSES.add(Horspool.class);
+        System.out.println("Horspool registered");
     }
 
-    public RabinKarp() {
+    public Horspool() {
+    }
+
+    @Override
+    public void Solve(String text, String pattern, MatchSink sink) {
+        compile(pattern).search(text, sink);
+    }
+
+    @Override
+    public CompiledPattern compile(String pattern) {
+        return new Compiled(pattern);
+    }
+
+    static class Compiled extends CompiledPattern {
+        private final CharIntMap shift; // Distance from the last occurrence (excluding the final char) to the end
+
+        Compiled(String pattern) {
+            super(pattern);
+            int m = pattern.length();
+            this.shift = new CharIntMap(m);
+            for (int i = 0; i < m - 1; i++) {
+                shift.put(pattern.charAt(i), m - 1 - i);
+            }
+        }
+
+        @Override
+        public void search(String text, MatchSink sink) {
+            search(text, 0, text.length(), sink, true);
+        }
+
+        @Override
+        public void searchNonOverlapping(String text, MatchSink sink) {
+            search(text, 0, text.length(), sink, false);
+        }
+
+        @Override
+        public void search(String text, int from, int to, MatchSink sink) {
+            search(text, from, Math.min(text.length(), to + pattern.length() - 1), sink, true);
+        }
+
+        /**
+         * Search text[from, n) as if it were the whole text, reporting indices in text
+         */
+        private void search(String text, int from, int n, MatchSink sink, boolean overlapping) {
+            int m = pattern.length();
+
+            // Handle empty pattern - matches at every position
+            if (m == 0) {
+                for (int i = from; i <= n; i++) {
+                    if (!sink.onMatch(i)) {
+                        return;
+                    }
+                }
+                return;
+            }
+
+            char last = pattern.charAt(m - 1);
+            int s = from;
+            while (s <= n - m) {
+                char c = text.charAt(s + m - 1);
+                if (c == last && matchesAt(text, pattern, s, m - 1)) {
+                    if (!sink.onMatch(s)) {
+                        return;
+                    }
+                    if (!overlapping) {
+                        s += m;
+                        continue;
+                    }
+                }
+                s += shift.get(c);
+            }
+        }
+
+        @Override
+        public long estimatedSize() {
+            return super.estimatedSize() + shift.estimatedSize();
+        }
+    }
+
+    /**
+     * Compare the first len characters of the pattern with the text at position s
+     */
+    static boolean matchesAt(String text, String pattern, int s, int len) {
+        for (int j = 0; j < len; j++) {
+            if (text.charAt(s + j) != pattern.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
+
+/**
+ * Sunday (Quick Search): bad character rule applied to the text character just
+ * after the window, which allows shifts of up to m+1
+ */
+class Sunday extends Solution {
+    static {
+        SUBCLASSES.add(Sunday.class);
+        System.out.println("Sunday registered");
+    }
+
+    public Sunday() {
+    }
+
+    @Override
+    public void Solve(String text, String pattern, MatchSink sink) {
+        compile(pattern).search(text, sink);
+    }
+
+    @Override
+    public CompiledPattern compile(String pattern) {
+        return new Compiled(pattern);
+    }
+
+    static class Compiled extends CompiledPattern {
+        private final CharIntMap shift; // m - last index of each char, m+1 if absent
+
+        Compiled(String pattern) {
+            super(pattern);
+            int m = pattern.length();
+            this.shift = new CharIntMap(m + 1);
+            for (int i = 0; i < m; i++) {
+                shift.put(pattern.charAt(i), m - i);
+            }
+        }
+
+        @Override
+        public void search(String text, MatchSink sink) {
+            search(text, 0, text.length(), sink, true);
+        }
+
+        @Override
+        public void searchNonOverlapping(String text, MatchSink sink) {
+            search(text, 0, text.length(), sink, false);
+        }
+
+        @Override
+        public void search(String text, int from, int to, MatchSink sink) {
+            search(text, from, Math.min(text.length(), to + pattern.length() - 1), sink, true);
+        }
+
+        /**
+         * Search text[from, n) as if it were the whole text, reporting indices in text
+         */
+        private void search(String text, int from, int n, MatchSink sink, boolean overlapping) {
+            int m = pattern.length();
+
+            // Handle empty pattern - matches at every position
+            if (m == 0) {
+                for (int i = from; i <= n; i++) {
+                    if (!sink.onMatch(i)) {
+                        return;
+                    }
+                }
+                return;
+            }
+
+            int s = from;
+            while (s <= n - m) {
+                if (Horspool.matchesAt(text, pattern, s, m)) {
+                    if (!sink.onMatch(s)) {
+                        return;
+                    }
+                    if (!overlapping) {
+                        s += m;
+                        continue;
+                    }
+                }
+                if (s + m >= n) {
+                    break;
+                }
+                s += shift.get(text.charAt(s + m));
+            }
+        }
+
+        @Override
+        public long estimatedSize() {
+            return super.estimatedSize() + shift.estimatedSize();
+        }
+    }
+}
+
+/**
+ * Rare character anchor: scans the text for the pattern's rarest character with
+ * String.indexOf (a JVM intrinsic, memchr-like on long texts), checks the second
+ * rarest character at its offset, and only then verifies the whole window.
+ *
+ * Rarity comes from a character-frequency profile. The default profile ranks
+ * characters by their usual frequency in English prose and log lines; any
+ * character it does not list (digits aside, most symbols and all non-Latin-1
+ * characters) counts as rare. A profile derived from a sample of the actual
+ * text can be passed to the constructor instead, or the sample itself (see profileOf).
+ */
+class RareAnchor extends Solution {
+    static {
+        SUBCLASSES.add(RareAnchor.class);
+        System.out.println("RareAnchor registered");
+    }
+
+    // Most common first; characters not listed get frequency 0
+    private static final String COMMON_CHARS =
+            " etaoinsrhldcumfpgwybvkTSAEIORNLCHDM0123456789.,:-/_=PBFGWUY\"'()[]xjqzVKXJQZ\t\n";
+    private static final int[] DEFAULT_PROFILE = new int[256];
+
+    static {
+        for (int i = 0; i < COMMON_CHARS.length(); i++) {
+            DEFAULT_PROFILE[COMMON_CHARS.charAt(i)] = COMMON_CHARS.length() - i;
+        }
+    }
+
+    private final int[] profile; // Frequency score of each Latin-1 char, higher = more common
+
+    public RareAnchor() {
+        this(DEFAULT_PROFILE);
+    }
+
+    /**
+     * @param profile Frequency score of each Latin-1 char (256 entries), e.g. from profileOf
+     */
+    public RareAnchor(int[] profile) {
+        this.profile = profile;
+    }
+
+    /**
+     * @param sample The text to be searched, or a representative part of it, to build the profile from
+     */
+    public RareAnchor(CharSequence sample) {
+        this(profileOf(sample));
+    }
+
+    /**
+     * Build a frequency profile from a sample of the text to be searched
+     * @param sample The text, or a representative part of it
+     * @return Occurrence count of each Latin-1 char in the sample
+     */
+    static int[] profileOf(CharSequence sample) {
+        int[] counts = new int[256];
+        for (int i = 0; i < sample.length(); i++) {
+            char c = sample.charAt(i);
+            if (c < 256) {
+                counts[c]++;
+            }
+        }
+        return counts;
     }
 
-    private static final int PRIME = 101; // A prime number for hashing
+    @Override
+    public void Solve(String text, String pattern, MatchSink sink) {
+        search(text, pattern, sink, true);
+    }
 
     @Override
-    public String Solve(String text, String pattern) {
-        List<Integer> indices = new ArrayList<>();
+    public void SolveNonOverlapping(String text, String pattern, MatchSink sink) {
+        search(text, pattern, sink, false);
+    }
+
+    private void search(String text, String pattern, MatchSink sink, boolean overlapping) {
         int n = text.length();
         int m = pattern.length();
 
         // Handle empty pattern - matches at every position
         if (m == 0) {
             for (int i = 0; i <= n; i++) {
-                indices.add(i);
+                if (!sink.onMatch(i)) {
+                    return;
+                }
             }
-            return indicesToString(indices);
+            return;
         }
 
         if (m > n) {
-            return "";
+            return;
         }
 
-        int d = 256; // Number of characters in the input alphabet
-        long patternHash = 0;
-        long textHash = 0;
-        long h = 1;
-
-        // Calculate h = d^(m-1) % PRIME
-        for (int i = 0; i < m - 1; i++) {
-            h = (h * d) % PRIME;
+        // Pick the rarest character as the scan anchor and the next rarest one as a filter
+        int anchor = 0;
+        int filter = -1;
+        for (int j = 1; j < m; j++) {
+            int f = frequency(pattern.charAt(j));
+            if (f < frequency(pattern.charAt(anchor))) {
+                filter = anchor;
+                anchor = j;
+            } else if (pattern.charAt(j) != pattern.charAt(anchor)
+                    && (filter < 0 || f < frequency(pattern.charAt(filter)))) {
+                filter = j;
+            }
         }
-
-        // Calculate hash value for pattern and first window of text
-        for (int i = 0; i < m; i++) {
-            patternHash = (d * patternHash + pattern.charAt(i)) % PRIME;
-            textHash = (d * textHash + text.charAt(i)) % PRIME;
+        if (filter < 0) {
+            filter = anchor; // Single distinct character: the filter check is a no-op
         }
 
-        // Slide the pattern over text one by one
-        for (int i = 0; i <= n - m; i++) {
-            // Check if hash values match
-            if (patternHash == textHash) {
-                // Check characters one by one
-                boolean match = true;
-                for (int j = 0; j < m; j++) {
-                    if (text.charAt(i + j) != pattern.charAt(j)) {
-                        match = false;
-                        break;
-                    }
+        char anchorChar = pattern.charAt(anchor);
+        char filterChar = pattern.charAt(filter);
+        int lastStart = n - m;
+        int i = text.indexOf(anchorChar, anchor);
+        while (i >= 0) {
+            int s = i - anchor;
+            if (s > lastStart) {
+                return;
+            }
+            if (text.charAt(s + filter) == filterChar && matchesAt(text, pattern, s)) {
+                if (!sink.onMatch(s)) {
+                    return;
                 }
-                if (match) {
-                    indices.add(i);
+                if (!overlapping) {
+                    i = text.indexOf(anchorChar, s + m + anchor);
+                    continue;
                 }
             }
+            i = text.indexOf(anchorChar, i + 1);
+        }
+    }
+
+    private int frequency(char c) {
+        return c < 256 ? profile[c] : 0;
+    }
+}
 
-            // Calculate hash value for next window
-            if (i < n - m) {
-                textHash = (d * (textHash - text.charAt(i) * h) + text.charAt(i + m)) % PRIME;
+/**
+ * Shift-Or (bit-parallel) matching: bit j of the state is 0 while pattern[0..j]
+ * matches the text ending at the current character, so one shift and one OR per
+ * text character advance all m partial matches at once.
+ *
+ * Patterns of up to 64 chars keep the state in a single long. Longer patterns use
+ * an array of ceil(m/64) words with the carry moved between words.
+ *
+ * The mask table is alphabet-compressed: each distinct pattern character gets a
+ * class (through a CharIntMap) and one mask per class is stored, so a Unicode
+ * pattern never needs a 65,536-entry table. Class 0 is every character not in the
+ * pattern, whose mask is all ones.
+ */
+class ShiftOr extends Solution {
+    static {
+        SUBCLASSES.add(ShiftOr.class);
+        System.out.println("ShiftOr registered");
+    }
 
-                // Convert negative hash to positive
-                if (textHash < 0) {
-                    textHash = textHash + PRIME;
-                }
+    public ShiftOr() {
+    }
+
+    @Override
+    public void Solve(String text, String pattern, MatchSink sink) {
+        compile(pattern).search(text, sink);
+    }
+
+    @Override
+    public CompiledPattern compile(String pattern) {
+        return exact(pattern);
+    }
+
+    /**
+     * Masks for an exact pattern: one class per distinct pattern character
+     */
+    static ShiftOrPattern exact(String pattern) {
+        int m = pattern.length();
+        CharIntMap charClass = new CharIntMap(0);
+        int classes = 1;
+        for (int j = 0; j < m; j++) {
+            if (charClass.get(pattern.charAt(j)) == 0) {
+                charClass.put(pattern.charAt(j), classes++);
             }
         }
-
-        return indicesToString(indices);
+        int words = ShiftOrPattern.wordsFor(m);
+        long[] masks = new long[classes * words];
+        Arrays.fill(masks, ~0L);
+        for (int j = 0; j < m; j++) {
+            masks[charClass.get(pattern.charAt(j)) * words + (j >>> 6)] &= ~(1L << (j & 63));
+        }
+        return new ShiftOrPattern(pattern, charClass, m, masks);
     }
 }
 
 /**
- * TODO: Implement Boyer-Moore algorithm
- * This is a homework assignment for students
+ * Two-Way algorithm (Crochemore and Perrin): linear time with O(1) extra space.
+ *
+ * The pattern is split at a critical factorization x = u v, computed from the two
+ * maximal suffixes of the pattern (one per character ordering). Each window is
+ * compared left to right on v, then right to left on u. On a mismatch in v the
+ * window shifts by the number of characters matched; after a mismatch in u or a
+ * match it shifts by the period. For periodic patterns the length of the prefix
+ * known to match is remembered across shifts, like the Galil rule.
+ *
+ * Unlike KMP or BoyerMoore, the compiled pattern only keeps three ints, so huge
+ * patterns searched from many threads need no per-pattern tables.
  */
-class BoyerMoore extends Solution {
+class TwoWay extends Solution {
     static {
-        SUBCLASSES.add(BoyerMoore.class);
-        System.out.println("BoyerMoore registered");
+        SUBCLASSES.add(TwoWay.class);
+        System.out.println("TwoWay registered");
     }
 
-    public BoyerMoore() {
+    public TwoWay() {
+    }
+
+    @Override
+    public void Solve(String text, String pattern, MatchSink sink) {
+        compile(pattern).search(text, sink);
     }
 
     @Override
-    public String Solve(String text, String pattern) {
-        // TODO: Students should implement Boyer-Moore algorithm here
-        throw new UnsupportedOperationException("Boyer-Moore algorithm not yet implemented - this is your homework!");
+    public CompiledPattern compile(String pattern) {
+        return new Compiled(pattern);
+    }
+
+    static class Compiled extends CompiledPattern {
+        private final int split; // Last index of u in the critical factorization (-1 if u is empty)
+        private final int period; // Period of the pattern if periodic, else a safe shift
+        private final boolean periodic; // u occurs again at index period, so period is the exact period of the pattern
+
+        Compiled(String pattern) {
+            super(pattern);
+            int m = pattern.length();
+            long forward = maximalSuffix(pattern, false);
+            long reverse = maximalSuffix(pattern, true);
+            int ell;
+            int per;
+            if ((int) forward > (int) reverse) {
+                ell = (int) forward;
+                per = (int) (forward >>> 32);
+            } else {
+                ell = (int) reverse;
+                per = (int) (reverse >>> 32);
+            }
+            this.split = ell;
+            this.periodic = m > 0 && pattern.regionMatches(0, pattern, per, ell + 1);
+            this.period = periodic ? per : Math.max(ell + 1, m - ell - 1) + 1;
+        }
+
+        @Override
+        public void search(String text, MatchSink sink) {
+            search(text, 0, text.length(), sink, true);
+        }
+
+        @Override
+        public void searchNonOverlapping(String text, MatchSink sink) {
+            search(text, 0, text.length(), sink, false);
+        }
+
+        @Override
+        public void search(String text, int from, int to, MatchSink sink) {
+            search(text, from, Math.min(text.length(), to + pattern.length() - 1), sink, true);
+        }
+
+        /**
+         * Search text[from, n) as if it were the whole text, reporting indices in text
+         */
+        private void search(String text, int from, int n, MatchSink sink, boolean overlapping) {
+            int m = pattern.length();
+
+            // Handle empty pattern - matches at every position
+            if (m == 0) {
+                for (int i = from; i <= n; i++) {
+                    if (!sink.onMatch(i)) {
+                        return;
+                    }
+                }
+                return;
+            }
+
+            int j = from;
+            int memory = -1; // Pattern prefix pattern[0..memory] known to match the current window
+            while (j <= n - m) {
+                // Right part v, left to right
+                int i = Math.max(split, memory) + 1;
+                while (i < m && pattern.charAt(i) == text.charAt(i + j)) {
+                    i++;
+                }
+                if (i < m) {
+                    j += i - split;
+                    memory = -1;
+                    continue;
+                }
+
+                // Left part u, right to left
+                i = split;
+                while (i > memory && pattern.charAt(i) == text.charAt(i + j)) {
+                    i--;
+                }
+                if (i <= memory) {
+                    if (!sink.onMatch(j)) {
+                        return;
+                    }
+                    if (!overlapping) {
+                        j += m;
+                        memory = -1;
+                        continue;
+                    }
+                }
+                j += period;
+                memory = periodic ? m - period - 1 : -1;
+            }
+        }
+
+        @Override
+        public long estimatedSize() {
+            return super.estimatedSize() + 12;
+        }
+    }
+
+    /**
+     * Maximal suffix of the pattern for the usual character order, or the reversed
+     * one, and the period of that suffix
+     * @return (period << 32) | (start of the suffix - 1)
+     */
+    static long maximalSuffix(String pattern, boolean reversed) {
+        int m = pattern.length();
+        int ms = -1; // Start of the current maximal suffix, minus one
+        int j = 0;
+        int k = 1;
+        int p = 1;
+        while (j + k < m) {
+            char a = pattern.charAt(j + k);
+            char b = pattern.charAt(ms + k);
+            if (reversed ? a > b : a < b) {
+                j += k;
+                k = 1;
+                p = j - ms;
+            } else if (a == b) {
+                if (k != p) {
+                    k++;
+                } else {
+                    j += p;
+                    k = 1;
+                }
+            } else {
+                ms = j;
+                j = ms + 1;
+                k = 1;
+                p = 1;
+            }
+        }
+        return ((long) p << 32) | (ms & 0xFFFFFFFFL);
     }
 }
 
 /**
- * TODO: Implement your own creative string matching algorithm
- * This is a homework assignment for students
- * Be creative! Try to make it efficient for specific cases
+ * GoCrazy: first/last character filter.
+ * A window can only match if both its first and its last character match the
+ * pattern, so those two are tested first and the rest of the pattern is only
+ * compared for the (rare) candidates.
+ *
+ * On large texts the filter runs as a SIMD kernel (see FirstLastFilter and src/vector/VectorKernel.java)
+ * that tests 16-32 positions per instruction; it is used when the Vector API
+ * module is enabled (--add-modules jdk.incubator.vector). Otherwise the scalar
+ * path hops between occurrences of the first character with String.indexOf,
+ * which the JVM also vectorizes internally.
  */
 class GoCrazy extends Solution {
     static {
         SUBCLASSES.add(GoCrazy.class);
-        System.out.println("GoCrazy registered");
+        System.out.println("GoCrazy registered" + (FirstLastFilter.VECTOR_KERNEL != null ? " (Vector API kernel)" : ""));
     }
 
     public GoCrazy() {
     }
 
     @Override
-    public String Solve(String text, String pattern) {
-        // TODO: Students should implement their own creative algorithm here
-        throw new UnsupportedOperationException("GoCrazy algorithm not yet implemented - this is your homework!");
-    }
-}
+    public void Solve(String text, String pattern, MatchSink sink) {
+        int n = text.length();
+        int m = pattern.length();
 
+        // Handle empty pattern - matches at every position
+        if (m == 0) {
+            for (int i = 0; i <= n; i++) {
+                if (!sink.onMatch(i)) {
+                    return;
+                }
+            }
+            return;
+        }
 
+        if (m > n) {
+            return;
+        }
+
+        FirstLastFilter.search(text, pattern, sink);
+    }
+}
@@ -0,0 +1,643 @@
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Randomized differential checks: every search API is run on seeded random inputs
+ * and compared with a reference built on String.indexOf (a brute-force DP for
+ * approximate search, java.util.regex for wildcards).
+ *
+ * Texts use small alphabets so matches, overlaps and periodic patterns are common,
+ * and half of the patterns are cut from the text so most of them occur. A failure
+ * prints the API, the seed and the input that disagrees; the same seed reproduces it.
+ *
+ * Usage examples:
+ *   java ManualTest check              - All checks with seed 1
+ *   java ManualTest check 42 1000      - Seed 42, 1000 rounds per check
+ */
+public class ApiCheck {
+    private static final String[] ENGINES = {"Naive", "KMP", "RabinKarp", "BoyerMoore", "BoyerMooreGalil",
+            "Horspool", "Sunday", "RareAnchor", "ShiftOr", "TwoWay", "GoCrazy"};
+    private static final String[] ALPHABETS = {"a", "ab", "ACGT", "abcdefghijklmnopqrstuvwxyz ", "aAbBλΛ"};
+    private static final String[] ASCII_ALPHABETS = {"a", "ab", "ACGT", "abcdefghijklmnopqrstuvwxyz "};
+
+    /**
+     * One group of checks; throws CheckFailure on the first disagreement
+     */
+    interface Check {
+        void run(Random random, int rounds) throws Exception;
+    }
+
+    static final class CheckFailure extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        CheckFailure(String message) {
+            super(message);
+        }
+    }
+
+    public static void run(String[] args) {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 1;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 300;
+        System.out.println("DIFFERENTIAL CHECKS - seed " + seed + ", " + rounds + " rounds per check");
+
+        int failed = 0;
+        failed += check("Engines (Solve, count, indexOf)", ApiCheck::engines, seed, rounds);
+        failed += check("Non-overlapping mode", ApiCheck::nonOverlapping, seed, rounds);
+        failed += check("SolveIgnoreCase", ApiCheck::ignoreCase, seed, rounds);
+        failed += check("CompiledPattern range search", ApiCheck::rangeSearch, seed, rounds);
+        failed += check("PatternCache", ApiCheck::patternCache, seed, rounds);
+        failed += check("StreamMatcher", ApiCheck::streamMatcher, seed, rounds);
+        failed += check("ByteStreamMatcher", ApiCheck::byteStreamMatcher, seed, rounds);
+        failed += check("MappedFileSearch", ApiCheck::mappedFile, seed, Math.max(1, rounds / 10));
+        failed += check("ParallelSearch", ApiCheck::parallel, seed, Math.max(1, rounds / 30));
+        failed += check("RollingHash (Mersenne-61)", ApiCheck::rollingHash, seed, rounds);
+        failed += check("Multi-pattern matchers", ApiCheck::multiPattern, seed, rounds);
+        failed += check("ApproximateMatcher", ApiCheck::approximate, seed, rounds);
+        failed += check("WildcardSearch", ApiCheck::wildcards, seed, rounds);
+        failed += check("TextIndex implementations", ApiCheck::textIndexes, seed, rounds);
+        failed += check("FMIndex checkpoint boundaries", ApiCheck::fmBoundaries, seed, rounds);
+        failed += check("PackedDnaMatcher", ApiCheck::packedDna, seed, rounds);
+
+        System.out.println(failed == 0 ? "All checks passed" : failed + " check(s) failed");
+        if (failed > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static int check(String name, Check check, long seed, int rounds) {
+        long start = System.nanoTime();
+        try {
+            check.run(new Random(seed), rounds);
+            System.out.printf("%-36s ok (%.0f ms)%n", name, (System.nanoTime() - start) / 1e6);
+            return 0;
+        } catch (CheckFailure e) {
+            System.out.printf("%-36s FAIL%n    %s%n", name, e.getMessage());
+        } catch (Exception e) {
+            System.out.printf("%-36s ERROR%n    %s%n", name, e);
+        }
+        return 1;
+    }
+
+    // Checks
+
+    /**
+     * Solve as a string, Solve with a sink, findAll, compile, count, indexOf, contains, findFirst
+     * and a MatchBuffer that fills up, for every engine
+     */
+    static void engines(Random random, int rounds) {
+        Solution[] engines = Benchmark.solutions(ENGINES);
+        for (int round = 0; round < rounds; round++) {
+            // Every 25th text is long enough for GoCrazy's windowed SIMD path
+            String text = randomText(random, round % 25 == 0 ? 70_000 + random.nextInt(70_000) : random.nextInt(300));
+            String pattern = randomPattern(random, text, 40);
+            List<Integer> expected = indexOfAll(text, pattern);
+            for (Solution engine : engines) {
+                String what = engine.getName() + describe(text, pattern);
+                expect(what + " Solve", String.join(",", expected.stream().map(String::valueOf).toList()),
+                        engine.Solve(text, pattern));
+                List<Integer> actual = new ArrayList<>();
+                engine.Solve(text, pattern, index -> actual.add(index));
+                expect(what + " Solve with a sink", expected, actual);
+                expect(what + " findAll", expected, engine.findAll(text, pattern));
+                expect(what + " compile", expected, engine.compile(pattern).findAll(text));
+                expect(what + " count", expected.size(), engine.count(text, pattern));
+                expect(what + " indexOf", expected.isEmpty() ? -1 : expected.get(0), engine.indexOf(text, pattern));
+                expect(what + " contains", !expected.isEmpty(), engine.contains(text, pattern));
+                int limit = random.nextInt(4);
+                expect(what + " findFirst " + limit, prefix(expected, limit), engine.findFirst(text, pattern, limit));
+
+                int capacity = random.nextInt(4);
+                MatchBuffer buffer = new MatchBuffer(capacity);
+                engine.Solve(text, pattern, buffer);
+                List<Integer> stored = new ArrayList<>();
+                for (int i = 0; i < buffer.size(); i++) {
+                    stored.add(buffer.get(i));
+                }
+                expect(what + " MatchBuffer(" + capacity + ")", prefix(expected, capacity), stored);
+                expect(what + " MatchBuffer(" + capacity + ") overflow", expected.size() > capacity,
+                        buffer.hasOverflowed());
+            }
+        }
+    }
+
+    static void nonOverlapping(Random random, int rounds) {
+        Solution[] engines = Benchmark.solutions(ENGINES);
+        for (int round = 0; round < rounds; round++) {
+            String text = randomText(random, random.nextInt(300));
+            String pattern = randomPattern(random, text, 12);
+            List<Integer> expected = indexOfAll(text, pattern, false);
+            for (Solution engine : engines) {
+                List<Integer> actual = new ArrayList<>();
+                engine.SolveNonOverlapping(text, pattern, index -> actual.add(index));
+                expect(engine.getName() + describe(text, pattern) + " SolveNonOverlapping", expected, actual);
+            }
+        }
+    }
+
+    /**
+     * Reference: CaseFolding folds one char at a time, so folding text and pattern keeps offsets
+     */
+    static void ignoreCase(Random random, int rounds) {
+        Solution[] engines = Benchmark.solutions(ENGINES);
+        for (int round = 0; round < rounds; round++) {
+            String text = randomText(random, "aAbBλΛσΣς", random.nextInt(300));
+            String pattern = randomPattern(random, text, "aAbBλΛσΣς", 10);
+            List<Integer> expected = indexOfAll(CaseFolding.fold(text), CaseFolding.fold(pattern));
+            for (Solution engine : engines) {
+                IntList actual = new IntList();
+                engine.SolveIgnoreCase(text, pattern, actual);
+                expect(engine.getName() + describe(text, pattern) + " SolveIgnoreCase", expected, actual);
+                expect(engine.getName() + describe(text, pattern) + " compileIgnoreCase", expected,
+                        engine.compileIgnoreCase(pattern).findAll(text));
+            }
+        }
+    }
+
+    /**
+     * search(text, from, to, sink) of every compiled engine over a random range
+     */
+    static void rangeSearch(Random random, int rounds) {
+        Solution[] engines = Benchmark.solutions(ENGINES);
+        for (int round = 0; round < rounds; round++) {
+            String text = randomText(random, random.nextInt(300));
+            String pattern = randomPattern(random, text, 12);
+            int from = random.nextInt(text.length() + 1);
+            int to = from + random.nextInt(text.length() - from + 1);
+            List<Integer> expected = new ArrayList<>();
+            for (int index : indexOfAll(text, pattern)) {
+                if (index >= from && index < to) {
+                    expected.add(index);
+                }
+            }
+            for (Solution engine : engines) {
+                List<Integer> actual = new ArrayList<>();
+                engine.compile(pattern).search(text, from, to, index -> actual.add(index));
+                expect(engine.getName() + describe(text, pattern) + " range [" + from + ", " + to + ")", expected, actual);
+            }
+        }
+    }
+
+    /**
+     * Searches through a small cache, so entries are evicted; a second instance of
+     * the same engine must get its own compiled pattern
+     */
+    static void patternCache(Random random, int rounds) {
+        PatternCache cache = new PatternCache(4096);
+        Solution[] engines = Benchmark.solutions(ENGINES);
+        Solution[] others = Benchmark.solutions(ENGINES);
+        for (int round = 0; round < rounds; round++) {
+            String text = randomText(random, random.nextInt(300));
+            String pattern = randomPattern(random, text, 40);
+            int engine = random.nextInt(engines.length);
+            String what = engines[engine].getName() + describe(text, pattern);
+
+            IntList actual = new IntList();
+            cache.search(engines[engine], text, pattern, actual);
+            expect(what + " cached search", indexOfAll(text, pattern), actual);
+            CompiledPattern compiled = cache.get(engines[engine], pattern);
+            expect(what + " same instance hits", true, cache.get(engines[engine], pattern) == compiled);
+            expect(what + " other instance misses", false, cache.get(others[engine], pattern) == compiled);
+        }
+    }
+
+    /**
+     * KMP, Rabin-Karp and Solution-backed stream matchers fed in random chunk sizes
+     */
+    static void streamMatcher(Random random, int rounds) throws Exception {
+        for (int round = 0; round < rounds; round++) {
+            String text = randomText(random, random.nextInt(400));
+            String pattern = nonEmpty(random, text, randomPattern(random, text, 20));
+            List<Long> expected = offsets(indexOfAll(text, pattern));
+            String engine = ENGINES[random.nextInt(ENGINES.length)];
+            StreamMatcher[] matchers = {StreamMatcher.kmp(pattern), StreamMatcher.rabinKarp(pattern),
+                    StreamMatcher.of(SolutionFactory.create(engine), pattern)};
+            int chunkSize = 1 + random.nextInt(33);
+            for (StreamMatcher matcher : matchers) {
+                List<Long> actual = new ArrayList<>();
+                matcher.search(new StringReader(text), offset -> actual.add(offset), chunkSize);
+                expect(matcher.getClass().getSimpleName() + describe(text, pattern) + " chunks of " + chunkSize,
+                        expected, actual);
+            }
+        }
+    }
+
+    static void byteStreamMatcher(Random random, int rounds) throws Exception {
+        for (int round = 0; round < rounds; round++) {
+            String alphabet = ASCII_ALPHABETS[random.nextInt(ASCII_ALPHABETS.length)];
+            String text = randomText(random, alphabet, random.nextInt(400));
+            String pattern = nonEmpty(random, text, randomPattern(random, text, alphabet, 20));
+            List<Long> expected = offsets(indexOfAll(text, pattern));
+            int chunkSize = 1 + random.nextInt(33);
+            List<Long> actual = new ArrayList<>();
+            new ByteStreamMatcher(pattern).search(
+                    Channels.newChannel(new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII))),
+                    offset -> actual.add(offset), chunkSize);
+            expect("ByteStreamMatcher" + describe(text, pattern) + " chunks of " + chunkSize, expected, actual);
+        }
+    }
+
+    /**
+     * Small regions, so matches cross many region borders
+     */
+    static void mappedFile(Random random, int rounds) throws Exception {
+        Path file = Files.createTempFile("stringmatching-check", ".txt");
+        try {
+            for (int round = 0; round < rounds; round++) {
+                String alphabet = ASCII_ALPHABETS[random.nextInt(ASCII_ALPHABETS.length)];
+                String text = randomText(random, alphabet, random.nextInt(3000));
+                String pattern = nonEmpty(random, text, randomPattern(random, text, alphabet, 20));
+                Files.write(file, text.getBytes(StandardCharsets.US_ASCII));
+                List<Long> expected = offsets(indexOfAll(text, pattern));
+                long regionSize = 1 + random.nextInt(256);
+                for (String algorithm : new String[]{"Naive", "KMP", "RabinKarp"}) {
+                    List<Long> actual = new ArrayList<>();
+                    new MappedFileSearch(pattern.getBytes(StandardCharsets.US_ASCII), algorithm, regionSize)
+                            .search(file, offset -> actual.add(offset));
+                    expect("Mapped " + algorithm + describe(text, pattern) + " regions of " + regionSize,
+                            expected, actual);
+                }
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Texts of several chunks, built around a Solution and around compiled patterns,
+     * plus findFirst to cover the early stop
+     */
+    static void parallel(Random random, int rounds) {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int round = 0; round < rounds; round++) {
+                int length = ParallelSearch.MIN_CHUNK_SIZE * (2 + random.nextInt(4)) + random.nextInt(1000);
+                String text = randomText(random, ALPHABETS[1 + random.nextInt(3)], length);
+                String pattern = nonEmpty(random, text, randomPattern(random, text, 30));
+                List<Integer> expected = indexOfAll(text, pattern);
+                Solution engine = SolutionFactory.create(ENGINES[random.nextInt(ENGINES.length)]);
+                String what = describe(text, pattern) + " " + engine.getName();
+
+                ParallelSearch bySolution = new ParallelSearch(engine, pool);
+                expect("Parallel Solve" + what, expected, bySolution.findAll(text, pattern));
+                int limit = 1 + random.nextInt(5);
+                expect("Parallel findFirst " + limit + what, prefix(expected, limit),
+                        bySolution.findFirst(text, pattern, limit));
+
+                ParallelSearch byPattern = new ParallelSearch(engine.compile(pattern), pool);
+                expect("Parallel compiled" + what, expected, byPattern.findAll(text));
+                List<Integer> folded = indexOfAll(CaseFolding.fold(text), CaseFolding.fold(pattern));
+                expect("Parallel compileIgnoreCase" + what, folded,
+                        new ParallelSearch(engine.compileIgnoreCase(pattern), pool).findAll(text));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * mulMod against BigInteger near the edges of [0, 2^61-1), and a rolled window
+     * hash against the hash computed from scratch
+     */
+    static void rollingHash(Random random, int rounds) {
+        BigInteger mod = BigInteger.valueOf(RollingHash.MOD);
+        for (int round = 0; round < rounds; round++) {
+            long a = round % 3 == 0 ? RollingHash.MOD - 1 - random.nextInt(1000)
+                    : Math.floorMod(random.nextLong(), RollingHash.MOD);
+            long b = round % 5 == 0 ? RollingHash.MOD - 1 - random.nextInt(1000)
+                    : Math.floorMod(random.nextLong(), RollingHash.MOD);
+            expect("mulMod(" + a + ", " + b + ")", BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)).mod(mod),
+                    RollingHash.mulMod(a, b));
+
+            String text = randomText(random, 1 + random.nextInt(300));
+            int m = 1 + random.nextInt(text.length());
+            long h = RollingHash.power(m - 1);
+            long hash = RollingHash.hash(text, 0, m);
+            for (int i = 0; i + m < text.length(); i++) {
+                hash = RollingHash.roll(hash, text.charAt(i), text.charAt(i + m), h);
+            }
+            int last = text.length() - m;
+            expect("roll" + describe(text, text.substring(last)), RollingHash.hash(text, last, m), hash);
+        }
+    }
+
+    /**
+     * AhoCorasick, WuManber and RabinKarpSet (same-length patterns) against one indexOf scan per pattern.
+     * The engines report in different orders, so (index, pattern id) pairs are compared sorted.
+     */
+    static void multiPattern(Random random, int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            String text = randomText(random, random.nextInt(500));
+            String[] patterns = new String[1 + random.nextInt(30)];
+            String[] sameLength = new String[patterns.length];
+            int length = 1 + random.nextInt(6);
+            for (int id = 0; id < patterns.length; id++) {
+                patterns[id] = nonEmpty(random, text, randomPattern(random, text, 12));
+                sameLength[id] = randomPattern(random, text, length, length);
+            }
+            long[] expected = pairs(text, patterns);
+            String what = " text=" + quote(text) + " patterns=" + Arrays.toString(patterns);
+            expect("AhoCorasick" + what, expected, pairs(new AhoCorasick(patterns), text));
+            expect("WuManber" + what, expected, pairs(new WuManber(patterns), text));
+            expect("RabinKarpSet text=" + quote(text) + " patterns=" + Arrays.toString(sameLength),
+                    pairs(text, sameLength), pairs(new RabinKarpSet(sameLength), text));
+        }
+    }
+
+    /**
+     * Hamming distance by direct comparison and edit distance by the Sellers DP
+     * (free start in the text), both reported per end position
+     */
+    static void approximate(Random random, int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            boolean longPattern = round % 3 == 0;
+            String text = randomText(random, random.nextInt(longPattern ? 400 : 80));
+            String pattern = nonEmpty(random, text, randomPattern(random, text, longPattern ? 150 : 10));
+            int m = pattern.length();
+            int n = text.length();
+            int k = random.nextInt(Math.min(m + 1, 12));
+
+            List<String> hamming = new ArrayList<>();
+            for (int end = m; end <= n; end++) {
+                int distance = 0;
+                for (int j = 0; j < m; j++) {
+                    if (text.charAt(end - m + j) != pattern.charAt(j)) {
+                        distance++;
+                    }
+                }
+                if (distance <= k) {
+                    hamming.add(end + ":" + distance);
+                }
+            }
+            List<String> edits = new ArrayList<>();
+            int[] previous = new int[m + 1];
+            int[] current = new int[m + 1];
+            for (int j = 0; j <= m; j++) {
+                previous[j] = j;
+            }
+            for (int i = 1; i <= n; i++) {
+                current[0] = 0;
+                for (int j = 1; j <= m; j++) {
+                    int substitution = previous[j - 1] + (text.charAt(i - 1) == pattern.charAt(j - 1) ? 0 : 1);
+                    current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), substitution);
+                }
+                if (current[m] <= k) {
+                    edits.add(i + ":" + current[m]);
+                }
+                int[] swap = previous;
+                previous = current;
+                current = swap;
+            }
+
+            String what = describe(text, pattern) + " k=" + k;
+            List<String> actual = new ArrayList<>();
+            ApproximateMatcher.hamming(pattern, k).search(text, (end, distance) -> actual.add(end + ":" + distance));
+            expect("hamming" + what, hamming, actual);
+            actual.clear();
+            ApproximateMatcher.edits(pattern, k).search(text, (end, distance) -> actual.add(end + ":" + distance));
+            expect("edits" + what, edits, actual);
+        }
+    }
+
+    /**
+     * Random '?', [set] and [^set] patterns against the same pattern as a regex in a
+     * lookahead, which finds overlapping matches
+     */
+    static void wildcards(Random random, int rounds) {
+        WildcardSearch wildcard = new WildcardSearch();
+        for (int round = 0; round < rounds; round++) {
+            String alphabet = "ACGT";
+            String text = randomText(random, alphabet, random.nextInt(300));
+            StringBuilder pattern = new StringBuilder();
+            StringBuilder regex = new StringBuilder();
+            int m = 1 + random.nextInt(round % 5 == 0 ? 100 : 8);
+            for (int j = 0; j < m; j++) {
+                int kind = random.nextInt(10);
+                if (kind < 5) {
+                    char c = alphabet.charAt(random.nextInt(alphabet.length()));
+                    pattern.append(c);
+                    regex.append(c);
+                } else if (kind < 7) {
+                    pattern.append('?');
+                    regex.append('.');
+                } else {
+                    String set = (kind == 9 ? "^" : "") + randomText(random, alphabet, 1 + random.nextInt(3));
+                    pattern.append('[').append(set).append(']');
+                    regex.append('[').append(set).append(']');
+                }
+            }
+            List<Integer> expected = new ArrayList<>();
+            Matcher matcher = Pattern.compile("(?=" + regex + ")").matcher(text);
+            while (matcher.find()) {
+                expected.add(matcher.start());
+            }
+            String what = describe(text, pattern.toString());
+            expect("WildcardSearch" + what, expected, wildcard.findAll(text, pattern.toString()));
+            List<Integer> nonOverlapping = new ArrayList<>();
+            int next = 0;
+            for (int index : expected) {
+                if (index >= next) {
+                    nonOverlapping.add(index);
+                    next = index + m;
+                }
+            }
+            List<Integer> actual = new ArrayList<>();
+            wildcard.SolveNonOverlapping(text, pattern.toString(), index -> actual.add(index));
+            expect("WildcardSearch non-overlapping" + what, nonOverlapping, actual);
+        }
+    }
+
+    /**
+     * count, contains and findAll of every TextIndex, several queries per text.
+     * Every 10th q-gram index also goes through write() and open().
+     */
+    static void textIndexes(Random random, int rounds) throws Exception {
+        Path file = Files.createTempFile("stringmatching-check", ".qgram");
+        try {
+            for (int round = 0; round < rounds; round++) {
+                String text = randomText(random, random.nextInt(round % 10 == 0 ? 5000 : 300));
+                QGramIndex qgram = QGramIndex.build(text, 1 + random.nextInt(6));
+                if (round % 10 == 0) {
+                    qgram.write(file);
+                    qgram = QGramIndex.open(file, text);
+                }
+                TextIndex[] indexes = {new SuffixArrayIndex(text), new FMIndex(text, 1 + random.nextInt(20)),
+                        qgram, new SuffixAutomatonIndex(text)};
+                for (int query = 0; query < 10; query++) {
+                    String pattern = randomPattern(random, text, 12);
+                    checkIndexes(indexes, text, pattern);
+                }
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Every text length up to a few checkpoint intervals for 1, 2 and 4-bit BWT symbols,
+     * so the rank checkpoint after the last row (n + 1 a multiple of the interval) is hit,
+     * e.g. n = 127 over ACGT
+     */
+    static void fmBoundaries(Random random, int rounds) {
+        expect("FMIndex n=127 count(ACGT)", 31, new FMIndex("ACGT".repeat(32).substring(0, 127)).count("ACGT"));
+        for (String alphabet : new String[]{"AC", "ACGT", "ACGTNRY"}) {
+            for (int n = 0; n <= 600; n++) {
+                String text = randomText(random, alphabet, n);
+                TextIndex[] index = {new FMIndex(text, 1 + random.nextInt(20))};
+                for (int query = 0; query < 4; query++) {
+                    checkIndexes(index, text, randomPattern(random, text, alphabet, 6));
+                }
+                String last = text.isEmpty() ? "A" : text.substring(text.length() - 1);
+                checkIndexes(index, text, last);
+            }
+        }
+    }
+
+    /**
+     * DNA with some N and lowercase chars (stored as exceptions), patterns longer than one word
+     */
+    static void packedDna(Random random, int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            String alphabet = round % 4 == 0 ? "ACGTACGTACGTNa" : "ACGT";
+            String text = randomText(random, alphabet, random.nextInt(round % 10 == 0 ? 5000 : 400));
+            String pattern = randomPattern(random, text, alphabet, round % 3 == 0 ? 100 : 16);
+            expect("PackedDnaMatcher" + describe(text, pattern), indexOfAll(text, pattern),
+                    new PackedDnaMatcher(pattern).findAll(PackedDna.of(text)));
+        }
+    }
+
+    // Helper methods
+
+    private static void checkIndexes(TextIndex[] indexes, String text, String pattern) {
+        List<Integer> expected = indexOfAll(text, pattern);
+        for (TextIndex index : indexes) {
+            String what = index.getName() + describe(text, pattern);
+            expect(what + " count", expected.size(), index.count(pattern));
+            expect(what + " contains", !expected.isEmpty(), index.contains(pattern));
+            expect(what + " findAll", expected, index.findAll(pattern));
+        }
+    }
+
+    static List<Integer> indexOfAll(String text, String pattern) {
+        return indexOfAll(text, pattern, true);
+    }
+
+    /**
+     * Reference matches from String.indexOf; the empty pattern matches at every index 0..n
+     * @param overlapping false to continue after each match (leftmost non-overlapping)
+     */
+    static List<Integer> indexOfAll(String text, String pattern, boolean overlapping) {
+        List<Integer> indices = new ArrayList<>();
+        int step = overlapping ? 1 : Math.max(pattern.length(), 1);
+        for (int i = text.indexOf(pattern); i >= 0; i = text.indexOf(pattern, i + step)) {
+            indices.add(i);
+            if (i == text.length()) {
+                break;
+            }
+        }
+        return indices;
+    }
+
+    private static List<Integer> prefix(List<Integer> indices, int limit) {
+        return new ArrayList<>(indices.subList(0, Math.min(limit, indices.size())));
+    }
+
+    private static List<Long> offsets(List<Integer> indices) {
+        List<Long> offsets = new ArrayList<>();
+        for (int index : indices) {
+            offsets.add((long) index);
+        }
+        return offsets;
+    }
+
+    /**
+     * Sorted (index << 32 | pattern id) of every match of every pattern
+     */
+    private static long[] pairs(String text, String[] patterns) {
+        List<Long> pairs = new ArrayList<>();
+        for (int id = 0; id < patterns.length; id++) {
+            for (int index : indexOfAll(text, patterns[id])) {
+                pairs.add((long) index << 32 | id);
+            }
+        }
+        return pairs.stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+
+    private static long[] pairs(MultiPatternMatcher matcher, String text) {
+        List<Long> pairs = new ArrayList<>();
+        matcher.search(text, (id, index) -> pairs.add((long) index << 32 | id));
+        return pairs.stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+
+    private static void expect(String what, Object expected, Object actual) {
+        String wanted = expected instanceof long[] ? Arrays.toString((long[]) expected) : String.valueOf(expected);
+        String got = actual instanceof long[] ? Arrays.toString((long[]) actual) : String.valueOf(actual);
+        if (!wanted.equals(got)) {
+            throw new CheckFailure(what + ": expected " + abbreviate(wanted) + " but got " + abbreviate(got));
+        }
+    }
+
+    private static String randomText(Random random, int length) {
+        return randomText(random, ALPHABETS[random.nextInt(ALPHABETS.length)], length);
+    }
+
+    private static String randomText(Random random, String alphabet, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = alphabet.charAt(random.nextInt(alphabet.length()));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * A substring of the text half of the time (so it occurs), otherwise random chars
+     * from the text's own chars; empty now and then
+     */
+    private static String randomPattern(Random random, String text, int maxLength) {
+        return randomPattern(random, text, text.isEmpty() ? "ab" : text, maxLength);
+    }
+
+    private static String randomPattern(Random random, String text, String alphabet, int maxLength) {
+        return randomPattern(random, text, alphabet, random.nextInt(20) == 0 ? 0 : 1, maxLength);
+    }
+
+    private static String randomPattern(Random random, String text, int minLength, int maxLength) {
+        return randomPattern(random, text, text.isEmpty() ? "ab" : text, minLength, maxLength);
+    }
+
+    private static String randomPattern(Random random, String text, String alphabet, int minLength, int maxLength) {
+        int length = minLength + random.nextInt(maxLength - minLength + 1);
+        if (random.nextBoolean() && length <= text.length()) {
+            int start = random.nextInt(text.length() - length + 1);
+            return text.substring(start, start + length);
+        }
+        return randomText(random, alphabet, length);
+    }
+
+    private static String nonEmpty(Random random, String text, String pattern) {
+        return pattern.isEmpty() ? randomPattern(random, text, 1, 1) : pattern;
+    }
+
+    private static String describe(String text, String pattern) {
+        return " text=" + quote(text) + " pattern=" + quote(pattern);
+    }
+
+    private static String quote(String s) {
+        return "\"" + abbreviate(s) + "\"" + (s.length() > 60 ? " (length " + s.length() + ")" : "");
+    }
+
+    private static String abbreviate(String s) {
+        return s.length() > 60 ? s.substring(0, 57) + "..." : s;
+    }
+}
@@ -0,0 +1,17 @@
+/**
+ * Receives approximate matches one at a time.
+ *
+ * An approximate match is identified by where it ends, because with edits the
+ * same end position can be reached from several start positions.
+ */
+@FunctionalInterface
+public interface ApproximateMatchSink {
+
+    /**
+     * Called once for every text position where a match ends, in increasing order
+     * @param end Index just past the last matched text character (exclusive, as in substring)
+     * @param distance Number of mismatches or edits of the best match ending there (at most k)
+     * @return true to keep searching, false to stop the search early
+     */
+    boolean onMatch(int end, int distance);
+}
@@ -0,0 +1,240 @@
+import java.util.Arrays;
+
+/**
+ * Approximate search: finds the places where the pattern occurs with at most k
+ * differences, for text with OCR or sequencing errors.
+ *
+ * - hamming(pattern, k): k mismatches, same length as the pattern (Shift-Add counters)
+ * - edits(pattern, k): k insertions, deletions or substitutions (Myers' bit-vector algorithm)
+ *
+ * Both are bit-parallel and run in O(n * ceil(m / 64)) word operations (Shift-Add
+ * packs a few bits per counter, so a word holds 64 / counter-width positions).
+ * The pattern is preprocessed once in the factory; a matcher is immutable and
+ * thread-safe, like CompiledPattern.
+ */
+public abstract class ApproximateMatcher {
+    protected final String pattern;
+    protected final int maxDistance;
+
+    protected ApproximateMatcher(String pattern, int maxDistance) {
+        if (maxDistance < 0) {
+            throw new IllegalArgumentException("Negative distance: " + maxDistance);
+        }
+        this.pattern = pattern;
+        this.maxDistance = maxDistance;
+    }
+
+    /**
+     * Matcher for at most k mismatching characters (Hamming distance)
+     */
+    public static ApproximateMatcher hamming(String pattern, int k) {
+        return new HammingMatcher(pattern, k);
+    }
+
+    /**
+     * Matcher for at most k single-character edits (Levenshtein distance)
+     */
+    public static ApproximateMatcher edits(String pattern, int k) {
+        return new MyersMatcher(pattern, k);
+    }
+
+    /**
+     * Search the text and push the end of every approximate match into the sink.
+     * The search stops as soon as the sink returns false.
+     */
+    public void search(String text, ApproximateMatchSink sink) {
+        if (pattern.isEmpty()) {
+            // The empty pattern matches everywhere with distance 0
+            for (int end = 0; end <= text.length(); end++) {
+                if (!sink.onMatch(end, 0)) {
+                    return;
+                }
+            }
+            return;
+        }
+        scan(text, sink);
+    }
+
+    protected abstract void scan(String text, ApproximateMatchSink sink);
+
+    /**
+     * End positions of all approximate matches (exclusive), in increasing order
+     */
+    public IntList findEnds(String text) {
+        IntList ends = new IntList();
+        search(text, (end, distance) -> ends.onMatch(end));
+        return ends;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public int getMaxDistance() {
+        return maxDistance;
+    }
+
+    /**
+     * Number the distinct pattern characters from 1; 0 is every other character
+     */
+    static CharIntMap characterClasses(String pattern) {
+        CharIntMap classes = new CharIntMap(0);
+        int next = 1;
+        for (int j = 0; j < pattern.length(); j++) {
+            if (classes.get(pattern.charAt(j)) == 0) {
+                classes.put(pattern.charAt(j), next++);
+            }
+        }
+        return classes;
+    }
+
+    static int classCount(String pattern) {
+        return (int) pattern.chars().distinct().count() + 1;
+    }
+}
+
+/**
+ * Shift-Add (Baeza-Yates and Gonnet): one small counter per pattern position,
+ * packed into longs. Counter j holds the number of mismatches between
+ * pattern[0..j] and the text ending at the current character. Each step shifts
+ * all counters up by one position and adds 1 where the pattern character differs.
+ *
+ * A counter has B = bits(k) + 1 bits. Its top bit catches the step where the count
+ * exceeds 2^(B-1) - 1 >= k; it is moved into a separate overflow vector and
+ * cleared, so no carry ever reaches the next counter.
+ */
+class HammingMatcher extends ApproximateMatcher {
+    private final CharIntMap charClass;
+    private final int width; // Counter width B in bits
+    private final int perWord; // Counters per long
+    private final int words;
+    private final long wordMask; // Bits used by the counters of one word
+    private final long highBits; // Top bit of every counter
+    private final long[] mismatch; // mismatch[class * words + w]: 1 in counter j if pattern[j] is not in the class
+
+    HammingMatcher(String pattern, int k) {
+        super(pattern, k);
+        int m = pattern.length();
+        this.width = 33 - Integer.numberOfLeadingZeros(Math.max(1, k)); // bits(k) + 1
+        this.perWord = 64 / width;
+        this.words = Math.max(1, (m + perWord - 1) / perWord);
+        this.wordMask = perWord * width == 64 ? ~0L : (1L << (perWord * width)) - 1;
+        long high = 0;
+        for (int f = 0; f < perWord; f++) {
+            high |= 1L << (f * width + width - 1);
+        }
+        this.highBits = high;
+
+        this.charClass = characterClasses(pattern);
+        int classes = classCount(pattern);
+        this.mismatch = new long[classes * words];
+        for (int j = 0; j < m; j++) {
+            for (int c = 0; c < classes; c++) {
+                mismatch[c * words + j / perWord] |= 1L << ((j % perWord) * width);
+            }
+            mismatch[charClass.get(pattern.charAt(j)) * words + j / perWord] &= ~(1L << ((j % perWord) * width));
+        }
+    }
+
+    @Override
+    protected void scan(String text, ApproximateMatchSink sink) {
+        int n = text.length();
+        int m = pattern.length();
+        int lastWord = (m - 1) / perWord;
+        int lastShift = ((m - 1) % perWord) * width;
+        int topShift = (perWord - 1) * width;
+        long counterHigh = 1L << (width - 1);
+        long counterMask = counterHigh - 1;
+        long[] counters = new long[words];
+        long[] overflow = new long[words];
+
+        for (int i = 0; i < n; i++) {
+            int row = charClass.get(text.charAt(i)) * words;
+            // Move every counter up one position, high words first; the new counter 0 starts at 0
+            for (int w = words - 1; w >= 0; w--) {
+                long carry = w > 0 ? counters[w - 1] >>> topShift : 0;
+                long carryOverflow = w > 0 ? overflow[w - 1] >>> topShift : 0;
+                long value = (((counters[w] << width) | carry) & wordMask) + mismatch[row + w];
+                overflow[w] = (((overflow[w] << width) | carryOverflow) & wordMask) | (value & highBits);
+                counters[w] = value & ~highBits;
+            }
+            if (i >= m - 1 && (overflow[lastWord] >>> lastShift & counterHigh) == 0) {
+                int distance = (int) (counters[lastWord] >>> lastShift & counterMask);
+                if (distance <= maxDistance && !sink.onMatch(i + 1, distance)) {
+                    return;
+                }
+            }
+        }
+    }
+}
+
+/**
+ * Myers' bit-vector algorithm for edit distance, in Hyyro's block form for
+ * patterns longer than 64 chars. Column j of the dynamic programming table is
+ * kept as vertical deltas (+1 in Pv, -1 in Mv) of ceil(m/64) words; each text
+ * character updates a block with a handful of word operations and passes the
+ * horizontal delta of its last row to the next block as a carry.
+ * The first row is 0 everywhere, so a match may start at any text position.
+ */
+class MyersMatcher extends ApproximateMatcher {
+    private final CharIntMap charClass;
+    private final int blocks;
+    private final long[] peq; // peq[class * blocks + b]: bit j set where pattern[64b + j] is in the class
+
+    MyersMatcher(String pattern, int k) {
+        super(pattern, k);
+        int m = pattern.length();
+        this.blocks = Math.max(1, (m + 63) >>> 6);
+        this.charClass = characterClasses(pattern);
+        this.peq = new long[classCount(pattern) * blocks];
+        for (int j = 0; j < m; j++) {
+            peq[charClass.get(pattern.charAt(j)) * blocks + (j >>> 6)] |= 1L << (j & 63);
+        }
+    }
+
+    @Override
+    protected void scan(String text, ApproximateMatchSink sink) {
+        int n = text.length();
+        int m = pattern.length();
+        long[] pv = new long[blocks];
+        long[] mv = new long[blocks];
+        Arrays.fill(pv, ~0L);
+        long lastRowBit = 1L << ((m - 1) & 63);
+        int score = m; // Edit distance of the whole pattern ending at the current character
+
+        for (int i = 0; i < n; i++) {
+            int row = charClass.get(text.charAt(i)) * blocks;
+            int carry = 0; // Horizontal delta entering the block from the row above it
+            for (int b = 0; b < blocks; b++) {
+                long eq = peq[row + b];
+                long p = pv[b];
+                long mNeg = mv[b];
+                long xv = eq | mNeg;
+                if (carry < 0) {
+                    eq |= 1;
+                }
+                long xh = (((eq & p) + p) ^ p) | eq;
+                long ph = mNeg | ~(xh | p);
+                long mh = p & xh;
+
+                long highBit = b == blocks - 1 ? lastRowBit : 1L << 63;
+                int out = (ph & highBit) != 0 ? 1 : (mh & highBit) != 0 ? -1 : 0;
+
+                ph <<= 1;
+                mh <<= 1;
+                if (carry < 0) {
+                    mh |= 1;
+                } else if (carry > 0) {
+                    ph |= 1;
+                }
+                pv[b] = mh | ~(xv | ph);
+                mv[b] = ph & xv;
+                carry = out;
+            }
+            score += carry;
+            if (score <= maxDistance && !sink.onMatch(i + 1, score)) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,814 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Benchmarks on inputs much larger than the JSON test cases.
+ *
+ * The shared test cases are scaled up by repeating their text, so the shapes
+ * stay the same (e.g. "Very Long Text" becomes hundreds of MB of A-Z).
+ * Every measurement is a warm-up run followed by the average of 5 runs.
+ *
+ * Usage examples:
+ *   java ManualTest bench              - List available benchmarks
+ *   java ManualTest bench mmap 256     - Memory-mapped search vs String + KMP on a 256 MB file
+ *   java ManualTest bench parallel 256 - Parallel search speedup for 1..N threads on 256 MB of text
+ *   java ManualTest bench periodic 1 256 - Worst-case periodic inputs, 1 M chars, pattern length 256
+ *   java ManualTest bench simd 64      - GoCrazy (SIMD first/last filter) vs Naive and KMP on 64 MB texts
+ *   java ManualTest bench rare 64      - RareAnchor vs the classical algorithms on 64 MB of prose-like text
+ *   java ManualTest bench dict 1 20000 - Aho-Corasick vs looping KMP.Solve for 20,000 keywords over 1 MB
+ *   java ManualTest bench wumanber 16  - Wu-Manber vs Aho-Corasick with 1K, 100K and 1M patterns over 16 MB
+ *   java ManualTest bench shiftor 64   - Bit-parallel Shift-Or vs Naive on short-pattern shapes, 64 MB texts
+ *   java ManualTest bench approx 16 3  - k-mismatch and k-edit search on 16 MB of random DNA, k = 3
+ *   java ManualTest bench wildcard 16  - Wildcard/class patterns vs java.util.regex on 16 MB of random DNA
+ *   java ManualTest bench fold 64      - Case-insensitive search: toLowerCase() copies vs SolveIgnoreCase on 64 MB
+ *   java ManualTest bench queries 64   - Solve/findAll vs count, first 10 and contains on 64 MB dense-match texts
+ *   java ManualTest bench nonoverlap 64 - Non-overlapping matches: post-filtering vs SolveNonOverlapping on 64 MB
+ *   java ManualTest bench hugepattern 256 - 256 KB patterns: TwoWay (O(1) space) vs KMP and BoyerMoore tables
+ *   java ManualTest bench suffixarray 16 1000 - Suffix array build time, bytes per char and per-query latency
+ *   java ManualTest bench fmindex 64 1000 - FM-index vs suffix array: bytes per base, count and locate latency
+ *   java ManualTest bench packed 64    - 2-bit packed DNA matcher vs KMP and Naive on the scaled DNA test
+ *   java ManualTest bench qgram 16 1000 - q-gram index build vs memory-mapped open, size and query latency
+ *   java ManualTest bench automaton 100 - Suffix automaton vs suffix array bytes per char on every shared text
+ */
+public class Benchmark {
+    private static final int RUNS = 5;
+
+    /**
+     * A measured piece of work; returns a result (e.g. match count) so it cannot be optimized away
+     */
+    interface Task {
+        long run() throws Exception;
+    }
+
+    public static void run(String[] args) {
+        if (args.length == 0) {
+            listBenchmarks();
+            return;
+        }
+        try {
+            switch (args[0].toLowerCase()) {
+                case "mmap":
+                    mappedFile(intArg(args, 1, 256));
+                    break;
+                case "parallel":
+                    parallelScaling(intArg(args, 1, 256), intArg(args, 2, Runtime.getRuntime().availableProcessors()));
+                    break;
+                case "periodic":
+                    periodicWorstCase(intArg(args, 1, 1), intArg(args, 2, 256));
+                    break;
+                case "simd":
+                    simdFilter(intArg(args, 1, 64));
+                    break;
+                case "rare":
+                    rareAnchor(intArg(args, 1, 64));
+                    break;
+                case "dict":
+                    dictionaryScan(intArg(args, 1, 1), intArg(args, 2, 20_000));
+                    break;
+                case "wumanber":
+                    wuManberScaling(intArg(args, 1, 16));
+                    break;
+                case "shiftor":
+                    shiftOr(intArg(args, 1, 64));
+                    break;
+                case "approx":
+                    approximate(intArg(args, 1, 16), intArg(args, 2, 3));
+                    break;
+                case "wildcard":
+                    wildcards(intArg(args, 1, 16));
+                    break;
+                case "fold":
+                    caseFolding(intArg(args, 1, 64));
+                    break;
+                case "queries":
+                    queryModes(intArg(args, 1, 64));
+                    break;
+                case "nonoverlap":
+                    nonOverlapping(intArg(args, 1, 64));
+                    break;
+                case "hugepattern":
+                    hugePattern(intArg(args, 1, 256));
+                    break;
+                case "suffixarray":
+                    suffixArray(intArg(args, 1, 16), intArg(args, 2, 1000));
+                    break;
+                case "fmindex":
+                    fmIndex(intArg(args, 1, 64), intArg(args, 2, 1000));
+                    break;
+                case "packed":
+                    packedDna(intArg(args, 1, 64));
+                    break;
+                case "qgram":
+                    qGramIndex(intArg(args, 1, 16), intArg(args, 2, 1000));
+                    break;
+                case "automaton":
+                    suffixAutomaton(intArg(args, 1, 100));
+                    break;
+                default:
+                    System.out.println("Unknown benchmark '" + args[0] + "'");
+                    listBenchmarks();
+            }
+        } catch (Exception e) {
+            System.err.print("Benchmark failed: ");
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    private static void listBenchmarks() {
+        System.out.println("AVAILABLE BENCHMARKS:");
+        System.out.println("  java ManualTest bench mmap [MB]     - Memory-mapped byte search vs Files.readString + KMP.Solve");
+        System.out.println("  java ManualTest bench parallel [MB] [maxThreads] - Fork/join speedup for 1..maxThreads threads");
+        System.out.println("  java ManualTest bench periodic [M chars] [m]     - Adversarial periodic inputs (BoyerMoore vs Galil rule)");
+        System.out.println("  java ManualTest bench simd [MB]     - GoCrazy SIMD/scalar filter vs Naive and KMP (short and medium patterns)");
+        System.out.println("  java ManualTest bench rare [MB]     - RareAnchor (default and text-derived profile) vs classical algorithms");
+        System.out.println("  java ManualTest bench dict [MB] [patterns]       - Aho-Corasick single pass vs one KMP.Solve per keyword");
+        System.out.println("  java ManualTest bench wumanber [MB] - Wu-Manber vs Aho-Corasick memory and speed for 1K, 100K, 1M patterns");
+        System.out.println("  java ManualTest bench shiftor [MB]  - Shift-Or vs Naive and KMP (single char, DNA, numbers/special shapes)");
+        System.out.println("  java ManualTest bench approx [MB] [k] - Hamming (Shift-Add) and edit distance (Myers) search vs exact KMP");
+        System.out.println("  java ManualTest bench wildcard [MB] - WildcardSearch ('?', [ACGT]) vs java.util.regex and exact ShiftOr");
+        System.out.println("  java ManualTest bench fold [MB]     - toLowerCase() + Solve vs SolveIgnoreCase (on-the-fly case folding)");
+        System.out.println("  java ManualTest bench queries [MB]  - Full result list/string vs count, findFirst(10), indexOf and contains");
+        System.out.println("  java ManualTest bench nonoverlap [MB] - Overlapping matches + post-filter vs SolveNonOverlapping");
+        System.out.println("  java ManualTest bench hugepattern [KB] - Pattern of KB kilobytes: time and table bytes per compiled pattern");
+        System.out.println("  java ManualTest bench suffixarray [MB] [queries] - Suffix array build, memory and query latency vs KMP scans");
+        System.out.println("  java ManualTest bench fmindex [MB] [queries]     - FM-index vs suffix array size and query latency on DNA");
+        System.out.println("  java ManualTest bench packed [MB]   - PackedDna (2 bits per base) matcher vs KMP and Naive on Strings");
+        System.out.println("  java ManualTest bench qgram [MB] [queries]       - q-gram index build vs mapped open, size, query latency");
+        System.out.println("  java ManualTest bench automaton [MB] - Suffix automaton vs suffix array memory per char, count latency");
+    }
+
+    /**
+     * Memory-mapped byte-wise search against reading the whole file into a String
+     */
+    static void mappedFile(int megabytes) throws Exception {
+        TestCase base = findSharedTest("Very Long Text");
+        String pattern = base.getPattern();
+        Path file = Files.createTempFile("stringmatching-bench", ".txt");
+        try {
+            Files.write(file, scaledText(base, megabytes << 20).getBytes(StandardCharsets.UTF_8));
+            printHeader("MEMORY-MAPPED FILE SEARCH - " + megabytes + " MB, pattern \"" + pattern + "\"");
+
+            Solution kmp = SolutionFactory.create("KMP");
+            report("String + KMP.Solve", time(() -> kmp.findAll(Files.readString(file), pattern).size()));
+            for (String algorithm : new String[]{"Naive", "KMP", "RabinKarp"}) {
+                MappedFileSearch search = new MappedFileSearch(pattern, algorithm);
+                report("Mapped " + algorithm, time(() -> search.count(file)));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Speedup of ParallelSearch over 1..maxThreads worker threads
+     */
+    static void parallelScaling(int megabytes, int maxThreads) throws Exception {
+        TestCase base = findSharedTest("Very Long Text");
+        String pattern = base.getPattern();
+        String text = scaledText(base, megabytes << 20);
+        printHeader("PARALLEL SEARCH SCALING - " + megabytes + " MB, pattern \"" + pattern + "\"");
+
+        for (Solution solution : solutions("Naive", "KMP")) {
+            long[] sequential = time(() -> solution.findAll(text, pattern).size());
+            report("Sequential " + solution.getName(), sequential);
+            for (int threads = 1; threads <= maxThreads; threads++) {
+                ForkJoinPool pool = new ForkJoinPool(threads);
+                try {
+                    ParallelSearch parallel = new ParallelSearch(solution, pool);
+                    long[] timing = time(() -> parallel.findAll(text, pattern).size());
+                    report(String.format("%s, %d thread(s) (%.2fx)", parallel.getName(), threads,
+                            sequential[0] / (double) timing[0]), timing);
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        }
+    }
+
+    /**
+     * Periodic texts and patterns where every window is a match or nearly one.
+     * Plain Boyer-Moore re-compares the whole pattern after each shift (O(nm));
+     * the Galil rule and KMP stay linear.
+     */
+    static void periodicWorstCase(int millions, int m) throws Exception {
+        int n = millions * 1_000_000;
+        String[][] inputs = {
+                {"All Same Character", "A".repeat(n), "A".repeat(m)},
+                {"Alternating Pattern", "AB".repeat(n / 2), "AB".repeat(m / 2)},
+                {"Periodic Near Miss", "A".repeat(n), "A".repeat(m - 1) + "B"},
+        };
+        Solution[] solutions = solutions("Naive", "KMP", "BoyerMoore", "BoyerMooreGalil");
+
+        for (String[] input : inputs) {
+            String text = input[1];
+            String pattern = input[2];
+            printHeader("PERIODIC WORST CASE - " + input[0] + ", n = " + text.length() + ", m = " + pattern.length());
+            for (Solution solution : solutions) {
+                report(solution.getName(), time(() -> solution.findAll(text, pattern).size()));
+            }
+        }
+    }
+
+    /**
+     * GoCrazy's first/last character filter, with and without the Vector API kernel.
+     * Run through test.sh (or with --add-modules jdk.incubator.vector) to enable the SIMD kernel.
+     */
+    static void simdFilter(int megabytes) throws Exception {
+        String[] shapes = {"Long Text Multiple Matches", "Very Long Text"};
+        Solution[] solutions = solutions("Naive", "KMP", "GoCrazy");
+        System.out.println("GoCrazy kernel: " + (FirstLastFilter.VECTOR_KERNEL != null
+                ? "Vector API (" + FirstLastFilter.VECTOR_KERNEL.getClass().getSimpleName() + ")"
+                : "scalar fallback (Vector API module not enabled)"));
+
+        for (String shape : shapes) {
+            TestCase base = findSharedTest(shape);
+            String text = scaledText(base, megabytes << 20);
+            String[] patterns = {base.getPattern(), base.getText().substring(10, 26)};
+            for (String pattern : patterns) {
+                printHeader("FIRST/LAST FILTER - " + shape + ", " + megabytes + " MB, pattern \"" + pattern + "\"");
+                for (Solution solution : solutions) {
+                    report(solution.getName(), time(() -> solution.findAll(text, pattern).size()));
+                }
+                report("GoCrazy (scalar path)", time(() -> {
+                    IntList indices = new IntList();
+                    FirstLastFilter.scalarSearch(text, pattern, indices);
+                    return indices.size();
+                }));
+            }
+        }
+    }
+
+    /**
+     * Rare character anchoring on the shapes of "Long Text Multiple Matches" and "Pattern with Spaces"
+     */
+    static void rareAnchor(int megabytes) throws Exception {
+        String[] shapes = {"Long Text Multiple Matches", "Pattern with Spaces"};
+        for (String shape : shapes) {
+            TestCase base = findSharedTest(shape);
+            String text = scaledText(base, megabytes << 20);
+            String pattern = base.getPattern();
+            Solution[] solutions = {SolutionFactory.create("Naive"), SolutionFactory.create("KMP"),
+                    SolutionFactory.create("BoyerMoore"), SolutionFactory.create("Horspool"), SolutionFactory.create("Sunday"),
+                    SolutionFactory.create("RareAnchor"), SolutionFactory.create("RareAnchor", text.substring(0, 1 << 16))};
+            printHeader("RARE CHARACTER ANCHOR - " + shape + ", " + megabytes + " MB, pattern \"" + pattern + "\"");
+            for (int i = 0; i < solutions.length; i++) {
+                Solution solution = solutions[i];
+                String label = i == solutions.length - 1 ? "RareAnchor (text-derived profile)" : solution.getName();
+                report(label, time(() -> solution.findAll(text, pattern).size()));
+            }
+        }
+    }
+
+    /**
+     * Dictionary scan: one Aho-Corasick pass against one KMP.Solve call per keyword.
+     * The KMP loop is timed on the first KMP_SAMPLE keywords and extrapolated to the full set.
+     */
+    static void dictionaryScan(int megabytes, int patternCount) throws Exception {
+        final int KMP_SAMPLE = 200;
+        TestCase base = findSharedTest("Long Text Multiple Matches");
+        String text = scaledText(base, megabytes << 20);
+        String[] keywords = keywords(base.getText(), patternCount, 3, 12);
+        printHeader("DICTIONARY SCAN - " + megabytes + " MB, " + patternCount + " keywords");
+
+        long start = System.nanoTime();
+        AhoCorasick automaton = new AhoCorasick(keywords);
+        System.out.printf("Aho-Corasick build: %.3f ms, %d states, ~%d KB%n",
+                (System.nanoTime() - start) / 1_000_000.0, automaton.getStateCount(), automaton.estimatedSize() >> 10);
+        report("AhoCorasick (one pass)", time(() -> automaton.count(text)));
+
+        Solution kmp = SolutionFactory.create("KMP");
+        int sample = Math.min(KMP_SAMPLE, keywords.length);
+        long[] timing = time(() -> {
+            long count = 0;
+            for (int i = 0; i < sample; i++) {
+                count += kmp.findAll(text, keywords[i]).size();
+            }
+            return count;
+        });
+        report("KMP.Solve x " + sample + " keywords", timing);
+        report("KMP.Solve x " + keywords.length + " (extrapolated)",
+                new long[]{timing[0] / sample * keywords.length, -1});
+    }
+
+    /**
+     * Wu-Manber and Aho-Corasick on growing pattern sets (8-16 chars each).
+     * The automaton is skipped above AHO_CORASICK_LIMIT patterns, where its dense rows need gigabytes.
+     */
+    static void wuManberScaling(int megabytes) throws Exception {
+        final int AHO_CORASICK_LIMIT = 100_000;
+        TestCase base = findSharedTest("Long Text Multiple Matches");
+        String text = scaledText(base, megabytes << 20);
+
+        for (int patternCount : new int[]{1_000, 100_000, 1_000_000}) {
+            String[] patterns = keywords(base.getText(), patternCount, 8, 16);
+            printHeader("WU-MANBER - " + megabytes + " MB, " + patternCount + " patterns of 8-16 chars");
+            MultiPatternMatcher[] matchers = patternCount <= AHO_CORASICK_LIMIT
+                    ? new MultiPatternMatcher[]{new WuManber(patterns), new AhoCorasick(patterns)}
+                    : new MultiPatternMatcher[]{new WuManber(patterns)};
+            for (MultiPatternMatcher matcher : matchers) {
+                report(String.format("%s (~%d KB)", matcher.getName(), matcher.estimatedSize() >> 10),
+                        time(() -> matcher.count(text)));
+            }
+        }
+    }
+
+    /**
+     * Shift-Or on short-pattern shapes, where its one-long state does best
+     */
+    static void shiftOr(int megabytes) throws Exception {
+        String[] shapes = {"Single Character Pattern", "DNA Sequence", "Numbers and Special Characters"};
+        Solution[] solutions = solutions("Naive", "KMP", "ShiftOr");
+        for (String shape : shapes) {
+            TestCase base = findSharedTest(shape);
+            String text = scaledText(base, megabytes << 20);
+            String pattern = base.getPattern();
+            printHeader("SHIFT-OR - " + shape + ", " + megabytes + " MB, pattern \"" + pattern + "\"");
+            for (Solution solution : solutions) {
+                report(solution.getName(), time(() -> solution.findAll(text, pattern).size()));
+            }
+        }
+    }
+
+    /**
+     * Approximate search on random DNA for a 32-char and a 100-char pattern (one and two words per column)
+     */
+    static void approximate(int megabytes, int k) throws Exception {
+        String text = randomDna(megabytes << 20);
+        Solution kmp = SolutionFactory.create("KMP");
+
+        for (int m : new int[]{32, 100}) {
+            String pattern = text.substring(1000, 1000 + m);
+            printHeader("APPROXIMATE SEARCH - random DNA, " + megabytes + " MB, m = " + m + ", k = " + k);
+            report("KMP (exact)", time(() -> kmp.findAll(text, pattern).size()));
+            ApproximateMatcher hamming = ApproximateMatcher.hamming(pattern, k);
+            report("Hamming <= " + k + " (Shift-Add)", time(() -> hamming.findEnds(text).size()));
+            ApproximateMatcher edits = ApproximateMatcher.edits(pattern, k);
+            report("Edits <= " + k + " (Myers)", time(() -> edits.findEnds(text).size()));
+        }
+    }
+
+    /**
+     * Wildcard and character-class patterns against the equivalent java.util.regex
+     * (find() restarted one past each match start, so overlapping matches count too)
+     */
+    static void wildcards(int megabytes) throws Exception {
+        String text = randomDna(megabytes << 20);
+        String[][] patterns = {
+                {"ACG?T", "ACG.T"},
+                {"GA[CT]TA[^G]A", "GA[CT]TA[^G]A"},
+                {"[AG]C??T[ACGT]G[CT]A??GC", "[AG]C..T[ACGT]G[CT]A..GC"},
+        };
+        WildcardSearch wildcard = new WildcardSearch();
+        Solution shiftOr = SolutionFactory.create("ShiftOr");
+
+        for (String[] pattern : patterns) {
+            printHeader("WILDCARD PATTERNS - random DNA, " + megabytes + " MB, pattern \"" + pattern[0] + "\"");
+            Pattern regex = Pattern.compile(pattern[1]);
+            report("java.util.regex", time(() -> {
+                Matcher matcher = regex.matcher(text);
+                long count = 0;
+                int from = 0;
+                while (matcher.find(from)) {
+                    count++;
+                    from = matcher.start() + 1;
+                }
+                return count;
+            }));
+            CompiledPattern compiled = wildcard.compile(pattern[0]);
+            report("WildcardSearch", time(() -> compiled.findAll(text).size()));
+            String exact = pattern[0].replaceAll("\\[\\^?([A-Z])[^]]*]", "$1").replace('?', 'A');
+            report("ShiftOr, exact \"" + exact + "\"", time(() -> shiftOr.findAll(text, exact).size()));
+        }
+    }
+
+    /**
+     * Case-insensitive search on the "Case Sensitive" shape: lowercasing copies of
+     * text and pattern before Solve, against folding characters inside the engine
+     */
+    static void caseFolding(int megabytes) throws Exception {
+        TestCase base = findSharedTest("Case Sensitive");
+        String text = scaledText(base, megabytes << 20);
+        String pattern = base.getPattern().toUpperCase();
+        printHeader("CASE-INSENSITIVE SEARCH - " + megabytes + " MB, pattern \"" + pattern + "\"");
+
+        for (Solution solution : solutions("Naive", "KMP", "BoyerMoore", "RabinKarp")) {
+            report(solution.getName() + ", toLowerCase() + Solve", time(() ->
+                    solution.findAll(text.toLowerCase(), pattern.toLowerCase()).size()));
+            report(solution.getName() + ", SolveIgnoreCase", time(() -> {
+                IntList indices = new IntList();
+                solution.SolveIgnoreCase(text, pattern, indices);
+                return indices.size();
+            }));
+        }
+    }
+
+    /**
+     * Query modes on dense-match shapes: building the full result against counting
+     * without storing, or stopping after the first few matches
+     */
+    static void queryModes(int megabytes) throws Exception {
+        String[] shapes = {"Long Text Multiple Matches", "All Same Character"};
+        for (String shape : shapes) {
+            TestCase base = findSharedTest(shape);
+            String text = scaledText(base, megabytes << 20);
+            String pattern = base.getPattern();
+            for (Solution solution : solutions("KMP", "Sunday")) {
+                String name = solution.getName();
+                printHeader("QUERY MODES - " + shape + ", " + megabytes + " MB, pattern \"" + pattern + "\", " + name);
+                report(name + ".Solve (String)", time(() -> solution.Solve(text, pattern).length()));
+                report(name + ".findAll", time(() -> solution.findAll(text, pattern).size()));
+                report(name + ".count", time(() -> solution.count(text, pattern)));
+                report(name + ".findFirst(10)", time(() -> solution.findFirst(text, pattern, 10).size()));
+                report(name + ".indexOf", time(() -> solution.indexOf(text, pattern)));
+                report(name + ".contains", time(() -> solution.contains(text, pattern) ? 1 : 0));
+            }
+        }
+    }
+
+    /**
+     * Leftmost non-overlapping matches on the overlap-heavy shapes: filtering the
+     * overlapping result list afterwards, against engines that skip past each match
+     */
+    static void nonOverlapping(int megabytes) throws Exception {
+        String[] shapes = {"Overlapping Patterns", "Complex Overlap"};
+        for (String shape : shapes) {
+            TestCase base = findSharedTest(shape);
+            String text = scaledText(base, megabytes << 20);
+            String pattern = base.getPattern();
+            int m = pattern.length();
+            printHeader("NON-OVERLAPPING MATCHES - " + shape + ", " + megabytes + " MB, pattern \"" + pattern + "\"");
+            for (Solution solution : solutions("KMP", "BoyerMoore", "Horspool", "ShiftOr")) {
+                report(solution.getName() + ", findAll + post-filter", time(() -> {
+                    IntList all = solution.findAll(text, pattern);
+                    IntList kept = new IntList();
+                    int next = 0;
+                    for (int i = 0; i < all.size(); i++) {
+                        if (all.get(i) >= next) {
+                            kept.add(all.get(i));
+                            next = all.get(i) + m;
+                        }
+                    }
+                    return kept.size();
+                }));
+                report(solution.getName() + ", SolveNonOverlapping", time(() -> {
+                    IntList kept = new IntList();
+                    solution.SolveNonOverlapping(text, pattern, kept);
+                    return kept.size();
+                }));
+            }
+        }
+    }
+
+    /**
+     * An extreme version of "Long Pattern": a random A-Z pattern of the given size,
+     * planted 4 times in 16x as much random A-Z text. Reports the table size each
+     * search needs next to the time.
+     */
+    static void hugePattern(int kilobytes) throws Exception {
+        Random random = new Random(42);
+        char[] chars = new char[17 * (kilobytes << 10)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) ('A' + random.nextInt(26));
+        }
+        int m = kilobytes << 10;
+        String pattern = new String(chars, 0, m);
+        for (int copy = 1; copy <= 4; copy++) {
+            pattern.getChars(0, m, chars, copy * 4 * m - copy);
+        }
+        String text = new String(chars, m, chars.length - m);
+        printHeader("HUGE PATTERN - m = " + m + ", n = " + text.length());
+        for (Solution solution : solutions("KMP", "BoyerMoore", "TwoWay")) {
+            long tableBytes = solution.compile(pattern).estimatedSize() - 2L * m;
+            report(String.format("%s (~%d KB of tables)", solution.getName(), tableBytes >> 10),
+                    time(() -> solution.findAll(text, pattern).size()));
+        }
+    }
+
+    /**
+     * Build a suffix array over random DNA once, then query it with 16-char substrings
+     * of the text. Per-query times are the batch time divided by the number of queries;
+     * KMP scans the whole text for each of the first 10 queries for comparison.
+     */
+    static void suffixArray(int megabytes, int queryCount) throws Exception {
+        String text = randomDna(megabytes << 20);
+        Random random = new Random(7);
+        String[] queries = new String[queryCount];
+        for (int i = 0; i < queryCount; i++) {
+            int start = random.nextInt(text.length() - 16);
+            queries[i] = text.substring(start, start + 16);
+        }
+        printHeader("SUFFIX ARRAY - " + megabytes + " MB of random DNA, " + queryCount + " queries of 16 chars");
+
+        long[] build = time(() -> new SuffixArrayIndex(text).length());
+        SuffixArrayIndex index = new SuffixArrayIndex(text);
+        report("Build (SA-IS + Kasai LCP)", build);
+        System.out.printf("%-40s %12.2f bytes/char (%d MB)%n", "Index size (text + SA + LCP)",
+                (double) index.estimatedSize() / text.length(), index.estimatedSize() >> 20);
+
+        long[] count = time(() -> {
+            long total = 0;
+            for (String query : queries) {
+                total += index.count(query);
+            }
+            return total;
+        });
+        report("count per query", new long[]{count[0] / queryCount, count[1]});
+        long[] findAll = time(() -> {
+            long total = 0;
+            for (String query : queries) {
+                total += index.findAll(query).size();
+            }
+            return total;
+        });
+        report("findAll per query", new long[]{findAll[0] / queryCount, findAll[1]});
+
+        int scans = Math.min(10, queryCount);
+        Solution kmp = SolutionFactory.create("KMP");
+        long[] scan = time(() -> {
+            long total = 0;
+            for (int i = 0; i < scans; i++) {
+                total += kmp.findAll(text, queries[i]).size();
+            }
+            return total;
+        });
+        report("KMP.findAll per query (full scan)", new long[]{scan[0] / scans, scan[1]});
+    }
+
+    /**
+     * FM-index against a suffix array on random DNA and on the scaled "DNA Sequence"
+     * test, whose repeated text gives many occurrences per query. Each index is built
+     * once (the build is timed without warm-up); queries are 16-char substrings, and
+     * locate cost is reported per occurrence.
+     */
+    static void fmIndex(int megabytes, int queryCount) throws Exception {
+        String[] names = {"random DNA", "DNA Sequence test"};
+        String[] texts = {randomDna(megabytes << 20), scaledText(findSharedTest("DNA Sequence"), megabytes << 20)};
+        for (int t = 0; t < texts.length; t++) {
+            String text = texts[t];
+            Random random = new Random(7);
+            String[] queries = new String[queryCount];
+            for (int i = 0; i < queryCount; i++) {
+                int start = random.nextInt(text.length() - 16);
+                queries[i] = text.substring(start, start + 16);
+            }
+            printHeader("FM-INDEX - " + megabytes + " MB of " + names[t] + ", " + queryCount + " queries of 16 chars");
+            for (int kind = 0; kind < 2; kind++) {
+                long start = System.nanoTime();
+                TextIndex index = kind == 0 ? new FMIndex(text) : new SuffixArrayIndex(text);
+                long build = System.nanoTime() - start;
+                System.out.printf("%-40s %12.3f ms   %.2f bytes/char%n", index.getName() + " build",
+                        build / 1_000_000.0, (double) index.estimatedSize() / text.length());
+                long[] count = time(() -> {
+                    long total = 0;
+                    for (String query : queries) {
+                        total += index.count(query);
+                    }
+                    return total;
+                });
+                report(index.getName() + " count per query", new long[]{count[0] / queryCount, count[1]});
+                // Locate only as many queries as fit in about a million occurrences (at least one)
+                int located = 1;
+                for (long total = index.count(queries[0]); located < queryCount; located++) {
+                    total += index.count(queries[located]);
+                    if (total > 1_000_000) {
+                        break;
+                    }
+                }
+                int locateCount = located;
+                long[] findAll = time(() -> {
+                    long total = 0;
+                    for (int i = 0; i < locateCount; i++) {
+                        total += index.findAll(queries[i]).size();
+                    }
+                    return total;
+                });
+                System.out.printf("%-40s %12.3f ns per occurrence (%d queries, %d occurrences)%n",
+                        index.getName() + " findAll", (double) findAll[0] / Math.max(findAll[1], 1),
+                        locateCount, findAll[1]);
+            }
+        }
+    }
+
+    /**
+     * Packed-word matching on PackedDna against KMP and Naive on the same text as a String:
+     * the scaled "DNA Sequence" test with its own pattern and a 48-base one, then random
+     * DNA with 12- and 40-base patterns that occur rarely
+     */
+    static void packedDna(int megabytes) throws Exception {
+        TestCase base = findSharedTest("DNA Sequence");
+        String scaled = scaledText(base, megabytes << 20);
+        String random = randomDna(megabytes << 20);
+        String[][] cases = {
+                {"DNA Sequence test", scaled, base.getPattern()},
+                {"DNA Sequence test", scaled, scaled.substring(1, 49)},
+                {"random DNA", random, random.substring(1000, 1012)},
+                {"random DNA", random, random.substring(5000, 5040)},
+        };
+        for (String[] c : cases) {
+            String text = c[1];
+            String pattern = c[2];
+            PackedDna packed = PackedDna.of(text);
+            printHeader("PACKED DNA - " + megabytes + " MB of " + c[0] + ", m = " + pattern.length()
+                    + " (String ~" + (text.length() >> 20) + "-" + (2 * text.length() >> 20)
+                    + " MB, packed " + (packed.estimatedSize() >> 20) + " MB)");
+            for (Solution solution : solutions("Naive", "KMP")) {
+                report(solution.getName(), time(() -> solution.findAll(text, pattern).size()));
+            }
+            PackedDnaMatcher matcher = new PackedDnaMatcher(pattern);
+            report("PackedDnaMatcher", time(() -> matcher.findAll(packed).size()));
+        }
+    }
+
+    /**
+     * q-gram index (q = 8) over random DNA: build time against opening the saved file
+     * with a memory mapping, index size, and latency of 24-char substring queries
+     * against a KMP scan of the whole text
+     */
+    static void qGramIndex(int megabytes, int queryCount) throws Exception {
+        String text = randomDna(megabytes << 20);
+        Random random = new Random(7);
+        String[] queries = new String[queryCount];
+        for (int i = 0; i < queryCount; i++) {
+            int start = random.nextInt(text.length() - 24);
+            queries[i] = text.substring(start, start + 24);
+        }
+        printHeader("Q-GRAM INDEX - " + megabytes + " MB of random DNA, q = " + QGramIndex.DEFAULT_Q
+                + ", " + queryCount + " queries of 24 chars");
+        Path file = Files.createTempFile("stringmatching-qgram", ".idx");
+        try {
+            long start = System.nanoTime();
+            QGramIndex built = QGramIndex.build(text);
+            System.out.printf("%-40s %12.3f ms   %.2f bytes/char in the index%n", "Build",
+                    (System.nanoTime() - start) / 1_000_000.0, (double) (built.estimatedSize() - 2L * text.length()) / text.length());
+            built.write(file);
+            report("Open (memory-mapped, checks text hash)", time(() -> QGramIndex.open(file, text).length()));
+
+            QGramIndex index = QGramIndex.open(file, text);
+            long[] findAll = time(() -> {
+                long total = 0;
+                for (String query : queries) {
+                    total += index.findAll(query).size();
+                }
+                return total;
+            });
+            report("findAll per query (mapped)", new long[]{findAll[0] / queryCount, findAll[1]});
+
+            int scans = Math.min(10, queryCount);
+            Solution kmp = SolutionFactory.create("KMP");
+            long[] scan = time(() -> {
+                long total = 0;
+                for (int i = 0; i < scans; i++) {
+                    total += kmp.findAll(text, queries[i]).size();
+                }
+                return total;
+            });
+            report("KMP.findAll per query (full scan)", new long[]{scan[0] / scans, scan[1]});
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Memory per text char of a suffix automaton against a suffix array, on the text of
+     * every shared test case (each distinct text once) scaled to the given size, plus
+     * the latency of counting the test's pattern. Each index is built once; at 100 MB
+     * the automaton needs a heap of several GB, and a build that runs out is reported.
+     */
+    static void suffixAutomaton(int megabytes) throws Exception {
+        printHeader("SUFFIX AUTOMATON vs SUFFIX ARRAY - shared test texts scaled to " + megabytes + " MB");
+        LinkedHashSet<String> seen = new LinkedHashSet<>();
+        for (TestCase test : TestCaseLoader.loadSharedTestCases()) {
+            if (test.getText().isEmpty() || !seen.add(test.getText())) {
+                continue;
+            }
+            String text = scaledText(test, megabytes << 20);
+            String pattern = test.getPattern();
+            System.out.println(test.getName() + " (pattern \"" + pattern + "\")");
+            for (int kind = 0; kind < 2; kind++) {
+                TextIndex index;
+                long start = System.nanoTime();
+                try {
+                    index = kind == 0 ? new SuffixAutomatonIndex(text) : new SuffixArrayIndex(text);
+                } catch (OutOfMemoryError e) {
+                    System.out.printf("  %-38s out of memory, run with a larger -Xmx%n", kind == 0 ? "SuffixAutomatonIndex" : "SuffixArrayIndex");
+                    continue;
+                }
+                System.out.printf("  %-38s %12.3f ms build   %.2f bytes/char%n", index.getName(),
+                        (System.nanoTime() - start) / 1_000_000.0, (double) index.estimatedSize() / text.length());
+                report("  " + index.getName() + " count", time(() -> index.count(pattern)));
+            }
+        }
+    }
+
+    static String randomDna(int length) {
+        Random random = new Random(42);
+        char[] bases = new char[length];
+        for (int i = 0; i < length; i++) {
+            bases[i] = "ACGT".charAt(random.nextInt(4));
+        }
+        return new String(bases);
+    }
+
+    /**
+     * Keywords for the dictionary benchmarks: the words of the sample text that fit
+     * the length range, plus pseudo-random lowercase words (fixed seed) until count is reached
+     */
+    static String[] keywords(String sample, int count, int minLength, int maxLength) {
+        LinkedHashSet<String> words = new LinkedHashSet<>();
+        for (String word : sample.split("[^A-Za-z]+")) {
+            if (word.length() >= minLength && word.length() <= maxLength && words.size() < count) {
+                words.add(word);
+            }
+        }
+        Random random = new Random(42);
+        while (words.size() < count) {
+            char[] word = new char[minLength + random.nextInt(maxLength - minLength + 1)];
+            for (int i = 0; i < word.length; i++) {
+                word[i] = (char) ('a' + random.nextInt(26));
+            }
+            words.add(new String(word));
+        }
+        return words.toArray(new String[0]);
+    }
+
+    // Helper methods
+
+    /**
+     * Repeat the text of a test case until it is exactly length characters long
+     */
+    static String scaledText(TestCase test, int length) {
+        String text = test.getText();
+        StringBuilder sb = new StringBuilder(length);
+        while (sb.length() + text.length() <= length) {
+            sb.append(text);
+        }
+        sb.append(text, 0, length - sb.length());
+        return sb.toString();
+    }
+
+    /**
+     * Fresh instances of the named algorithms, in the given order
+     */
+    static Solution[] solutions(String... names) {
+        Solution[] solutions = new Solution[names.length];
+        for (int i = 0; i < names.length; i++) {
+            solutions[i] = SolutionFactory.create(names[i]);
+        }
+        return solutions;
+    }
+
+    static TestCase findSharedTest(String name) {
+        for (TestCase test : TestCaseLoader.loadSharedTestCases()) {
+            if (test.getName().equals(name)) {
+                return test;
+            }
+        }
+        throw new IllegalArgumentException("Test case not found: " + name);
+    }
+
+    /**
+     * Warm up once, then run the task RUNS times
+     * @return {average time in nanoseconds, result of the last run}
+     */
+    static long[] time(Task task) throws Exception {
+        task.run();
+        long total = 0;
+        long result = 0;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            result = task.run();
+            total += System.nanoTime() - start;
+        }
+        return new long[]{total / RUNS, result};
+    }
+
+    static void report(String label, long[] timing) {
+        System.out.printf("%-40s %12.3f ms   result: %d%n", label, timing[0] / 1_000_000.0, timing[1]);
+    }
+
+    static void printHeader(String title) {
+        System.out.println("=".repeat(100));
+        System.out.println(title);
+        System.out.println("=".repeat(100));
+    }
+
+    static int intArg(String[] args, int index, int defaultValue) {
+        if (args.length <= index) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(args[index].trim());
+        } catch (NumberFormatException e) {
+            System.out.println("⚠ Warning: Invalid number '" + args[index] + "', using " + defaultValue);
+            return defaultValue;
+        }
+    }
+}
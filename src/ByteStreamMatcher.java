@@ -0,0 +1,134 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streaming KMP search over raw bytes, e.g. from a file or socket channel.
+ *
+ * The pattern is encoded once with the given charset and matched byte by byte,
+ * so the input is never decoded. Matches are reported as global byte offsets.
+ * The KMP state is carried across chunks, so memory use is one chunk buffer
+ * plus the pattern tables no matter how large the input is.
+ */
+public class ByteStreamMatcher {
+    private final byte[] pat;
+    private final int[] lps;
+    private int j; // Number of pattern bytes matched so far
+    private long position; // Number of bytes consumed so far
+    private boolean stopped;
+
+    public ByteStreamMatcher(String pattern) {
+        this(pattern, StandardCharsets.UTF_8);
+    }
+
+    public ByteStreamMatcher(String pattern, Charset charset) {
+        this(pattern.getBytes(charset));
+    }
+
+    public ByteStreamMatcher(byte[] pattern) {
+        this.pat = pattern.clone();
+        this.lps = computeLPS(pat);
+    }
+
+    /**
+     * Search the remaining bytes of the buffer and advance its position to the limit
+     * @return false if the sink asked to stop, true otherwise
+     */
+    public boolean feed(ByteBuffer chunk, LongMatchSink sink) {
+        if (stopped) {
+            return false;
+        }
+        int m = pat.length;
+        int start = chunk.position();
+        int end = chunk.limit();
+        long base = position - start;
+        boolean more = true;
+
+        if (m == 0) {
+            // Empty pattern matches before every byte
+            for (int k = start; k < end && more; k++) {
+                more = sink.onMatch(base + k);
+            }
+        } else {
+            int state = j;
+            for (int k = start; k < end; k++) {
+                byte b = chunk.get(k);
+                while (state > 0 && b != pat[state]) {
+                    state = lps[state - 1];
+                }
+                if (b == pat[state]) {
+                    state++;
+                }
+                if (state == m) {
+                    state = lps[m - 1];
+                    if (!sink.onMatch(base + k - m + 1)) {
+                        more = false;
+                        break;
+                    }
+                }
+            }
+            j = state;
+        }
+
+        chunk.position(end);
+        position += end - start;
+        stopped = !more;
+        return more;
+    }
+
+    /**
+     * Read the channel until end of stream and report every match
+     */
+    public void search(ReadableByteChannel channel, LongMatchSink sink) throws IOException {
+        search(channel, sink, StreamMatcher.DEFAULT_CHUNK_SIZE);
+    }
+
+    public void search(ReadableByteChannel channel, LongMatchSink sink, int chunkSize) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(chunkSize);
+        while (channel.read(buffer) != -1) {
+            buffer.flip();
+            if (!feed(buffer, sink)) {
+                return;
+            }
+            buffer.clear();
+        }
+        if (!stopped && pat.length == 0) {
+            sink.onMatch(position);
+        }
+        stopped = true;
+    }
+
+    /**
+     * Forget all state so the matcher can be used on a new stream
+     */
+    public void reset() {
+        j = 0;
+        position = 0;
+        stopped = false;
+    }
+
+    /**
+     * @return Number of bytes consumed so far
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    static int[] computeLPS(byte[] pattern) {
+        int m = pattern.length;
+        int[] lps = new int[m];
+        int len = 0;
+        for (int i = 1; i < m; i++) {
+            while (len > 0 && pattern[i] != pattern[len]) {
+                len = lps[len - 1];
+            }
+            if (pattern[i] == pattern[len]) {
+                len++;
+            }
+            lps[i] = len;
+        }
+        return lps;
+    }
+}
@@ -0,0 +1,32 @@
+/**
+ * Simple case folding for case-insensitive search, applied to one char at a time
+ * so the text never has to be copied with toLowerCase().
+ *
+ * ASCII letters are folded with one range check. Other characters use
+ * toLowerCase(toUpperCase(c)), the same per-char rule as String.equalsIgnoreCase,
+ * so e.g. the Kelvin sign and 'K', or long s and 's', fold together. Characters
+ * outside the BMP (surrogate pairs) are compared as they are.
+ */
+public final class CaseFolding {
+
+    private CaseFolding() {
+    }
+
+    public static char fold(char c) {
+        if (c < 0x80) {
+            return c >= 'A' && c <= 'Z' ? (char) (c | 0x20) : c;
+        }
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /**
+     * Fold every character of a (short) string, e.g. a pattern at compile time
+     */
+    public static String fold(String s) {
+        char[] folded = new char[s.length()];
+        for (int i = 0; i < folded.length; i++) {
+            folded[i] = fold(s.charAt(i));
+        }
+        return new String(folded);
+    }
+}
@@ -0,0 +1,95 @@
+import java.util.Arrays;
+
+/**
+ * Compact map from char to int, used for skip tables (bad character rule, Horspool, Sunday...).
+ *
+ * Latin-1 characters (below 256) are stored in a direct 256-entry array. Any other
+ * character goes into a small open-addressing hash table sized to the number of
+ * such characters in the pattern, so a pattern containing Unicode characters does
+ * not need a 65,536-entry table. Characters never put() return the default value.
+ */
+public class CharIntMap {
+    private static final int DIRECT_SIZE = 256;
+
+    private final int defaultValue;
+    private final int[] direct;
+    private char[] keys; // Open addressing for chars >= 256, 0 marks an empty slot
+    private int[] values;
+    private int wideCount;
+
+    public CharIntMap(int defaultValue) {
+        this.defaultValue = defaultValue;
+        this.direct = new int[DIRECT_SIZE];
+        Arrays.fill(direct, defaultValue);
+    }
+
+    public int get(char c) {
+        if (c < DIRECT_SIZE) {
+            return direct[c];
+        }
+        if (keys == null) {
+            return defaultValue;
+        }
+        int mask = keys.length - 1;
+        for (int slot = hash(c) & mask; ; slot = (slot + 1) & mask) {
+            char key = keys[slot];
+            if (key == c) {
+                return values[slot];
+            }
+            if (key == 0) {
+                return defaultValue;
+            }
+        }
+    }
+
+    public void put(char c, int value) {
+        if (c < DIRECT_SIZE) {
+            direct[c] = value;
+            return;
+        }
+        if (keys == null) {
+            keys = new char[8];
+            values = new int[8];
+        } else if ((wideCount + 1) * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int slot = hash(c) & mask;
+        while (keys[slot] != 0 && keys[slot] != c) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == 0) {
+            keys[slot] = c;
+            wideCount++;
+        }
+        values[slot] = value;
+    }
+
+    /**
+     * @return Approximate memory used by the tables in bytes
+     */
+    public long estimatedSize() {
+        long size = 4L * DIRECT_SIZE;
+        if (keys != null) {
+            size += 6L * keys.length;
+        }
+        return size;
+    }
+
+    private void rehash(int capacity) {
+        char[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new char[capacity];
+        values = new int[capacity];
+        wideCount = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int hash(char c) {
+        return (c * 0x9E3779B1) >>> 16;
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * A pattern preprocessed once for a specific algorithm (LPS table, hashes, skip tables...).
+ *
+ * Created with Solution.compile(pattern). A compiled pattern is immutable and
+ * thread-safe, so the same instance can be searched against many texts from many
+ * threads without repeating the preprocessing work.
+ */
+public abstract class CompiledPattern {
+    protected final String pattern;
+
+    protected CompiledPattern(String pattern) {
+        this.pattern = pattern;
+    }
+
+    /**
+     * Search the text and push every match into the sink, in increasing order.
+     * The search stops as soon as the sink returns false.
+     */
+    public abstract void search(String text, MatchSink sink);
+
+    /**
+     * Search only for matches starting in [from, to), reading the text no further than
+     * to + m - 1. Lets ParallelSearch split one text between threads without copying it:
+     * the compiled forms of the engines scan the range in place, the default searches
+     * a copy of the window.
+     */
+    public void search(String text, int from, int to, MatchSink sink) {
+        int end = Math.min(text.length(), to + pattern.length() - 1);
+        if (from > end) {
+            return;
+        }
+        search(text.substring(from, end), index -> sink.onMatch(from + index));
+    }
+
+    /**
+     * Search for leftmost non-overlapping matches: each match starts at or after the
+     * end of the previous one. Compiled forms of the engines override this to skip
+     * ahead by m; the default drops overlapping matches from search().
+     */
+    public void searchNonOverlapping(String text, MatchSink sink) {
+        int m = pattern.length();
+        int[] next = {0}; // First index a match may start at
+        search(text, index -> {
+            if (index < next[0]) {
+                return true;
+            }
+            next[0] = index + m;
+            return sink.onMatch(index);
+        });
+    }
+
+    /**
+     * Find all matches and return them as a primitive list
+     */
+    public IntList findAll(String text) {
+        IntList indices = new IntList();
+        search(text, indices);
+        return indices;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Rough number of bytes held by this object, used by PatternCache to bound its memory.
+     * Subclasses with tables should add the size of their tables.
+     */
+    public long estimatedSize() {
+        return 64 + 2L * pattern.length();
+    }
+}
@@ -0,0 +1,290 @@
+import java.util.Arrays;
+
+/**
+ * FM-index: the Burrows-Wheeler transform of the text with rank support and a
+ * sampled suffix array, for texts too large for a full suffix array.
+ *
+ * The text itself is not kept. The BWT is stored bit-packed over the text's own
+ * alphabet (2 bits per symbol for DNA). Rank is a checkpoint of per-symbol counts
+ * every few words plus a SWAR popcount over the words since the checkpoint, so
+ * count() is O(m) backward search with no text access. Every sampleRate-th text
+ * position is kept; locate walks LF from a row to the nearest sampled row, at most
+ * sampleRate - 1 steps per occurrence.
+ *
+ * For DNA with the default sample rate of 16 this is about 0.8 bytes per base
+ * (BWT 0.25, rank checkpoints 0.125, samples 0.25, sample marks 0.19).
+ * Building needs the full suffix array (SA-IS) temporarily, 8 bytes per char.
+ */
+public class FMIndex extends TextIndex {
+    private static final int DEFAULT_SAMPLE_RATE = 16;
+
+    private final int n; // Text length; the BWT has n + 1 rows, row 0 is the sentinel suffix
+    private final char[] alphabet; // Sorted distinct text chars, symbol c is alphabet[c]
+    private final int[] charCode; // Symbol of each char, -1 if it does not occur (only up to the largest char)
+    private final int bits; // Bits per packed symbol, a power of two so symbols never straddle words
+    private final long highMask; // Top bit of every symbol field in a word
+    private final long[] bwt; // Packed BWT; the sentinel row holds symbol 0 and is corrected in rank()
+    private final int sentinelRow; // Row whose BWT char is the sentinel (the row of text position 0)
+    private final int checkpointShift; // log2 of the words between rank checkpoints
+    private final int[] checkpoints; // Symbol counts before each checkpoint, [checkpoint * sigma + symbol]
+    private final int[] smaller; // C array: 1 (sentinel) + number of text chars with a smaller symbol
+    private final int sampleRate;
+    private final long[] sampled; // Bit per row: is its text position a multiple of sampleRate
+    private final int[] sampledRank; // Set bits in sampled before each word
+    private final int[] samples; // Text positions of the sampled rows, in row order
+
+    public FMIndex(String text) {
+        this(text, DEFAULT_SAMPLE_RATE);
+    }
+
+    /**
+     * @param sampleRate Keep every sampleRate-th text position; higher is smaller but locates slower
+     */
+    public FMIndex(String text, int sampleRate) {
+        if (sampleRate < 1) {
+            throw new IllegalArgumentException("Sample rate must be positive: " + sampleRate);
+        }
+        this.n = text.length();
+        this.sampleRate = sampleRate;
+
+        // Alphabet of the text, mapped to symbols 0..sigma-1 in char order
+        char maxChar = 0;
+        for (int i = 0; i < n; i++) {
+            maxChar = (char) Math.max(maxChar, text.charAt(i));
+        }
+        int[] code = new int[maxChar + 1];
+        Arrays.fill(code, -1);
+        for (int i = 0; i < n; i++) {
+            code[text.charAt(i)] = 0;
+        }
+        int sigma = 0;
+        for (int c = 0; c <= maxChar; c++) {
+            if (code[c] == 0) {
+                code[c] = sigma++;
+            }
+        }
+        this.charCode = code;
+        this.alphabet = new char[sigma];
+        for (int c = 0; c <= maxChar; c++) {
+            if (code[c] >= 0) {
+                alphabet[code[c]] = (char) c;
+            }
+        }
+
+        int width = 1;
+        while (width < 16 && (1 << width) < sigma) {
+            width <<= 1;
+        }
+        this.bits = width;
+        long high = 0;
+        for (int shift = bits - 1; shift < 64; shift += bits) {
+            high |= 1L << shift;
+        }
+        this.highMask = high;
+
+        int[] s = new int[n];
+        for (int i = 0; i < n; i++) {
+            s[i] = code[text.charAt(i)];
+        }
+        int[] sa = SuffixArrayIndex.suffixArray(s, Math.max(sigma - 1, 0));
+
+        // Row 0 is the sentinel suffix, row r > 0 is the text suffix sa[r - 1]
+        int rows = n + 1;
+        int perWord = 64 / bits;
+        int words = (rows + perWord - 1) / perWord;
+        this.bwt = new long[words];
+        this.sampled = new long[(rows + 63) >>> 6];
+        int sentinel = 0;
+        int sampleCount = 0;
+        for (int row = 0; row < rows; row++) {
+            int position = row == 0 ? n : sa[row - 1];
+            int symbol;
+            if (position == 0) {
+                sentinel = row;
+                symbol = 0;
+            } else {
+                symbol = s[position - 1];
+            }
+            bwt[row / perWord] |= (long) symbol << ((row % perWord) * bits);
+            if (position % sampleRate == 0) {
+                sampled[row >>> 6] |= 1L << row;
+                sampleCount++;
+            }
+        }
+        this.sentinelRow = sentinel;
+
+        this.samples = new int[sampleCount];
+        this.sampledRank = new int[sampled.length + 1];
+        for (int word = 0; word < sampled.length; word++) {
+            sampledRank[word + 1] = sampledRank[word] + Long.bitCount(sampled[word]);
+        }
+        for (int row = 0, k = 0; row < rows; row++) {
+            if ((sampled[row >>> 6] & (1L << row)) != 0) {
+                samples[k++] = row == 0 ? n : sa[row - 1];
+            }
+        }
+
+        // Checkpoint every 4 words for small alphabets, less often for large ones so
+        // the counts stay within about one int per symbol per 32 * sigma bits of BWT
+        int shift = 2;
+        while ((1 << shift) < sigma / 2) {
+            shift++;
+        }
+        this.checkpointShift = shift;
+        int checkpointCount = (words >>> shift) + 1;
+        this.checkpoints = new int[checkpointCount * sigma];
+        int[] running = new int[sigma];
+        // Up to row == rows, so rank(symbol, n + 1) has its checkpoint when rows is a multiple of the interval
+        for (int row = 0; row <= rows; row++) {
+            if (row % (perWord << shift) == 0) {
+                System.arraycopy(running, 0, checkpoints, (row / (perWord << shift)) * sigma, sigma);
+            }
+            if (row < rows && sigma > 0) {
+                running[symbolAt(row)]++; // The sentinel counts as symbol 0 here, rank() corrects it
+            }
+        }
+        if (sigma > 0) {
+            running[0]--;
+        }
+
+        this.smaller = new int[sigma + 1];
+        smaller[0] = 1;
+        for (int c = 0; c < sigma; c++) {
+            smaller[c + 1] = smaller[c] + running[c];
+        }
+    }
+
+    @Override
+    public int length() {
+        return n;
+    }
+
+    @Override
+    public int count(String pattern) {
+        if (pattern.isEmpty()) {
+            return n + 1;
+        }
+        long range = backwardSearch(pattern);
+        return (int) (range & 0xFFFFFFFFL) - (int) (range >>> 32);
+    }
+
+    @Override
+    public IntList findAll(String pattern) {
+        if (pattern.isEmpty()) {
+            return allPositions();
+        }
+        long range = backwardSearch(pattern);
+        int start = (int) (range >>> 32);
+        int end = (int) (range & 0xFFFFFFFFL);
+        IntList indices = new IntList(Math.max(end - start, 0));
+        for (int row = start; row < end; row++) {
+            indices.add(locate(row));
+        }
+        indices.sort();
+        return indices;
+    }
+
+    /**
+     * Backward search: extend the pattern one char to the left at a time,
+     * narrowing the range of rows whose suffixes start with it
+     * @return (first row << 32) | end row, an empty range if the pattern does not occur
+     */
+    private long backwardSearch(String pattern) {
+        int start = 0;
+        int end = n + 1;
+        for (int i = pattern.length() - 1; i >= 0 && start < end; i--) {
+            int symbol = symbolOf(pattern.charAt(i));
+            if (symbol < 0) {
+                return 0;
+            }
+            start = smaller[symbol] + rank(symbol, start);
+            end = smaller[symbol] + rank(symbol, end);
+        }
+        return start < end ? ((long) start << 32) | end : 0;
+    }
+
+    /**
+     * Text position of a row: follow LF to the previous text position until a sampled row
+     */
+    private int locate(int row) {
+        int steps = 0;
+        while ((sampled[row >>> 6] & (1L << row)) == 0) {
+            int symbol = symbolAt(row);
+            row = smaller[symbol] + rank(symbol, row);
+            steps++;
+        }
+        int word = row >>> 6;
+        int sample = sampledRank[word] + Long.bitCount(sampled[word] & ((1L << row) - 1));
+        return samples[sample] + steps;
+    }
+
+    /**
+     * Occurrences of the symbol in BWT rows [0, row)
+     */
+    private int rank(int symbol, int row) {
+        int perWord = 64 / bits;
+        int word = row / perWord;
+        int checkpoint = word >>> checkpointShift;
+        int count = checkpoints[checkpoint * alphabet.length + symbol];
+        long pattern = broadcast(symbol);
+        for (int w = checkpoint << checkpointShift; w < word; w++) {
+            count += Long.bitCount(equalFields(bwt[w] ^ pattern));
+        }
+        int rest = row % perWord;
+        if (rest > 0) {
+            long fields = equalFields(bwt[word] ^ pattern);
+            count += Long.bitCount(fields & ((1L << (rest * bits)) - 1));
+        }
+        // The sentinel row is stored as symbol 0
+        if (symbol == 0 && sentinelRow < row) {
+            count--;
+        }
+        return count;
+    }
+
+    /**
+     * Top bit set in every field of x that is zero (classic SWAR zero-field test)
+     */
+    private long equalFields(long x) {
+        long low = ~highMask;
+        return ~(((x & low) + low) | x) & highMask;
+    }
+
+    private long broadcast(int symbol) {
+        long pattern = 0;
+        for (int shift = 0; shift < 64; shift += bits) {
+            pattern |= (long) symbol << shift;
+        }
+        return pattern;
+    }
+
+    private int symbolAt(int row) {
+        int perWord = 64 / bits;
+        return (int) (bwt[row / perWord] >>> ((row % perWord) * bits)) & ((1 << bits) - 1);
+    }
+
+    private int symbolOf(char c) {
+        return c < charCode.length ? charCode[c] : -1;
+    }
+
+    /**
+     * Recover the text by walking LF from the sentinel row (O(n) rank calls)
+     */
+    public String text() {
+        char[] chars = new char[n];
+        int row = 0;
+        for (int i = n - 1; i >= 0; i--) {
+            int symbol = symbolAt(row);
+            chars[i] = alphabet[symbol];
+            row = smaller[symbol] + rank(symbol, row);
+        }
+        return new String(chars);
+    }
+
+    @Override
+    public long estimatedSize() {
+        return 64 + 2L * alphabet.length + 4L * charCode.length + 8L * bwt.length
+                + 4L * checkpoints.length + 4L * smaller.length
+                + 8L * sampled.length + 4L * sampledRank.length + 4L * samples.length;
+    }
+}
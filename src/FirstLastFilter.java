@@ -0,0 +1,90 @@
+/**
+ * The first/last character filter behind GoCrazy, with its optional SIMD kernel.
+ * Callers handle the empty pattern and m > n; search then picks the Vector API
+ * kernel for large texts when it is loaded, and the scalar path otherwise.
+ */
+final class FirstLastFilter {
+    /**
+     * Search kernel over a char array window of the text
+     */
+    interface Kernel {
+        /**
+         * Report the matches in text[0, length)
+         */
+        void search(char[] text, int length, char[] pattern, MatchSink sink);
+    }
+
+    // Below this size copying the text into a char array costs more than the SIMD scan saves
+    static final int VECTOR_MIN_TEXT_LENGTH = 4096;
+    // The text is copied into the kernel's buffer this many chars at a time (plus m-1 of overlap)
+    static final int VECTOR_CHUNK_LENGTH = 64 * 1024;
+    static final Kernel VECTOR_KERNEL = loadVectorKernel();
+
+    private FirstLastFilter() {
+    }
+
+    static void search(String text, String pattern, MatchSink sink) {
+        if (VECTOR_KERNEL != null && text.length() >= VECTOR_MIN_TEXT_LENGTH) {
+            vectorSearch(text, pattern, sink);
+        } else {
+            scalarSearch(text, pattern, sink);
+        }
+    }
+
+    /**
+     * Feed the kernel bounded windows of the text through one reused buffer instead of
+     * copying the whole text; windows overlap by m-1 chars so no match is lost, and
+     * each window only reports the matches that start in it
+     */
+    static void vectorSearch(String text, String pattern, MatchSink sink) {
+        int n = text.length();
+        int m = pattern.length();
+        char[] chars = pattern.toCharArray();
+        char[] window = new char[Math.min(n, VECTOR_CHUNK_LENGTH + m - 1)];
+        boolean[] stopped = {false};
+        for (int from = 0; from <= n - m; ) {
+            int length = Math.min(window.length, n - from);
+            text.getChars(from, from + length, window, 0);
+            int offset = from;
+            VECTOR_KERNEL.search(window, length, chars, index -> {
+                if (sink.onMatch(offset + index)) {
+                    return true;
+                }
+                stopped[0] = true;
+                return false;
+            });
+            if (stopped[0]) {
+                return;
+            }
+            from += length - m + 1;
+        }
+    }
+
+    static void scalarSearch(String text, String pattern, MatchSink sink) {
+        int m = pattern.length();
+        int lastStart = text.length() - m;
+        char first = pattern.charAt(0);
+        char last = pattern.charAt(m - 1);
+
+        int i = text.indexOf(first);
+        while (i >= 0 && i <= lastStart) {
+            if (text.charAt(i + m - 1) == last
+                    && text.regionMatches(i + 1, pattern, 1, Math.max(0, m - 2))
+                    && !sink.onMatch(i)) {
+                return;
+            }
+            i = text.indexOf(first, i + 1);
+        }
+    }
+
+    /**
+     * Load the SIMD kernel if it was compiled and the Vector API module is enabled
+     */
+    private static Kernel loadVectorKernel() {
+        try {
+            return (Kernel) Class.forName("VectorKernel").getDeclaredConstructor().newInstance();
+        } catch (Exception | LinkageError e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+/**
+ * Fallback for case-insensitive search: naive scan comparing folded characters
+ */
+class FoldingPattern extends CompiledPattern {
+    private final String folded;
+
+    FoldingPattern(String pattern) {
+        super(pattern);
+        this.folded = CaseFolding.fold(pattern);
+    }
+
+    @Override
+    public void search(String text, MatchSink sink) {
+        int n = text.length();
+        int m = folded.length();
+        for (int i = 0; i <= n - m; i++) {
+            int j = 0;
+            while (j < m && CaseFolding.fold(text.charAt(i + j)) == folded.charAt(j)) {
+                j++;
+            }
+            if (j == m && !sink.onMatch(i)) {
+                return;
+            }
+        }
+    }
+}
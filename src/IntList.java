@@ -0,0 +1,152 @@
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive ints used to collect match indices.
+ *
+ * Stores values in a plain int array (4 bytes per match instead of a boxed
+ * Integer plus a reference), grows by 1.5x when full and gives direct access
+ * to the backing array for fast iteration.
+ * Also works as a MatchSink, so it can be passed straight to Solution.Solve.
+ */
+public class IntList implements MatchSink {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int[] EMPTY = new int[0];
+
+    private int[] data;
+    private int size;
+
+    public IntList() {
+        this.data = EMPTY;
+    }
+
+    public IntList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Negative capacity: " + initialCapacity);
+        }
+        this.data = initialCapacity == 0 ? EMPTY : new int[initialCapacity];
+    }
+
+    @Override
+    public boolean onMatch(int index) {
+        add(index);
+        return true;
+    }
+
+    /**
+     * Append a value to the end of the list
+     */
+    public void add(int value) {
+        if (size == data.length) {
+            grow(size + 1);
+        }
+        data[size++] = value;
+    }
+
+    /**
+     * Append all values of another list
+     */
+    public void addAll(IntList other) {
+        ensureCapacity(size + other.size);
+        System.arraycopy(other.data, 0, data, size, other.size);
+        size += other.size;
+    }
+
+    public int get(int i) {
+        if (i >= size) {
+            throw new IndexOutOfBoundsException("Index " + i + " out of bounds for size " + size);
+        }
+        return data[i];
+    }
+
+    public void set(int i, int value) {
+        if (i >= size) {
+            throw new IndexOutOfBoundsException("Index " + i + " out of bounds for size " + size);
+        }
+        data[i] = value;
+    }
+
+    /**
+     * Remove and return the last value, so the list can be used as a stack
+     */
+    public int removeLast() {
+        if (size == 0) {
+            throw new IndexOutOfBoundsException("List is empty");
+        }
+        return data[--size];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Remove all values but keep the allocated capacity for reuse
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Make sure at least minCapacity values fit without another resize
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > data.length) {
+            grow(minCapacity);
+        }
+    }
+
+    /**
+     * Shrink the backing array to exactly size() entries
+     */
+    public void trimToSize() {
+        if (size < data.length) {
+            data = size == 0 ? EMPTY : Arrays.copyOf(data, size);
+        }
+    }
+
+    /**
+     * Sort the values in ascending order
+     */
+    public void sort() {
+        Arrays.sort(data, 0, size);
+    }
+
+    /**
+     * @return The backing array; only the first size() entries are valid.
+     *         The array is replaced when the list grows, so do not keep it across add() calls.
+     */
+    public int[] array() {
+        return data;
+    }
+
+    /**
+     * @return A copy of the values with length size()
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(data, size);
+    }
+
+    private void grow(int minCapacity) {
+        int newCapacity = Math.max(DEFAULT_CAPACITY, data.length + (data.length >> 1));
+        if (newCapacity < minCapacity || newCapacity < 0) {
+            newCapacity = minCapacity;
+        }
+        data = Arrays.copyOf(data, newCapacity);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(data[i]);
+        }
+        return sb.append(']').toString();
+    }
+}
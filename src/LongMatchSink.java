@@ -0,0 +1,16 @@
+/**
+ * Receives match positions as long offsets.
+ *
+ * Used by searches whose input can be larger than 2^31 characters or bytes,
+ * such as streams and memory-mapped files.
+ */
+@FunctionalInterface
+public interface LongMatchSink {
+
+    /**
+     * Called once for every match, in increasing order of offset
+     * @param offset The global offset in the input where the pattern was found
+     * @return true to keep searching, false to stop the search early
+     */
+    boolean onMatch(long offset);
+}
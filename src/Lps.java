@@ -0,0 +1,35 @@
+/**
+ * Longest proper prefix of the pattern that is also a suffix, for every prefix
+ * (the KMP failure function). lps[i] is the length of that border of pattern[0..i];
+ * the pattern must not be empty. Shared by KMP and the KMP stream matcher.
+ */
+final class Lps {
+    private Lps() {
+    }
+
+    static int[] compute(String pattern) {
+        int m = pattern.length();
+        int[] lps = new int[m];
+        int len = 0;
+        int i = 1;
+
+        lps[0] = 0;
+
+        while (i < m) {
+            if (pattern.charAt(i) == pattern.charAt(len)) {
+                len++;
+                lps[i] = len;
+                i++;
+            } else {
+                if (len != 0) {
+                    len = lps[len - 1];
+                } else {
+                    lps[i] = 0;
+                    i++;
+                }
+            }
+        }
+
+        return lps;
+    }
+}
@@ -14,6 +14,8 @@ import java.util.*;
  *   java ManualTest share              - Run only shared tests (for students)
  *   java ManualTest hidden             - Run only hidden tests (for grading)
  *   java ManualTest preanalysis        - Run with pre-analysis comparison
+ *   java ManualTest bench [name]       - Run a large-input benchmark (see Benchmark.java)
+ *   java ManualTest check [seed] [rounds] - Randomized checks of every API against String.indexOf (see ApiCheck.java)
  */
 public class ManualTest {
     
@@ -26,6 +28,12 @@ public class ManualTest {
             Class.forName("KMP");
             Class.forName("RabinKarp");
             Class.forName("BoyerMoore");
+            Class.forName("BoyerMooreGalil");
+            Class.forName("Horspool");
+            Class.forName("Sunday");
+            Class.forName("RareAnchor");
+            Class.forName("ShiftOr");
+            Class.forName("TwoWay");
             Class.forName("GoCrazy");
         } catch (ClassNotFoundException e) {
             System.err.println("Error loading algorithm classes: " + e.getMessage());
@@ -64,6 +72,12 @@ public class ManualTest {
             // Run only hidden tests
             System.out.println("Running HIDDEN tests (for grading)...\n");
             runWithFullComparison(allTests, hiddenTests);
+        } else if (args[0].equalsIgnoreCase("bench") || args[0].equalsIgnoreCase("benchmark")) {
+            // Run large-input benchmarks
+            Benchmark.run(Arrays.copyOfRange(args, 1, args.length));
+        } else if (args[0].equalsIgnoreCase("check")) {
+            // Run randomized differential checks
+            ApiCheck.run(Arrays.copyOfRange(args, 1, args.length));
         } else if (args[0].equalsIgnoreCase("preanalysis") || args[0].equalsIgnoreCase("pre")) {
             // Run with pre-analysis comparison
             System.out.println("Running with PRE-ANALYSIS comparison...\n");
@@ -174,6 +188,8 @@ public class ManualTest {
         System.out.println("  java ManualTest share        - Run only shared tests (for students)");
         System.out.println("  java ManualTest hidden       - Run only hidden tests (for grading)");
         System.out.println("  java ManualTest preanalysis  - Run with pre-analysis comparison");
+        System.out.println("  java ManualTest bench        - List large-input benchmarks");
+        System.out.println("  java ManualTest check [seed] [rounds] - Randomized checks of every API against String.indexOf");
         System.out.println("  java ManualTest list         - Show this list");
     }
     
@@ -129,10 +129,14 @@ public class ManualTestRunner {
         // Get algorithm names
         List<String> algorithmNames = new ArrayList<>(results.get(0).algorithmResults.keySet());
 
-        // Calculate column widths
+        // Calculate column widths, wide enough for the longest algorithm name
+        int longestName = 0;
+        for (String algName : algorithmNames) {
+            longestName = Math.max(longestName, algName.length());
+        }
         int testNameWidth = 32;
-        int timeWidth = 18;
-        int winnerWidth = 18;
+        int timeWidth = Math.max(18, longestName + " (μs)".length() + 1);
+        int winnerWidth = Math.max(18, longestName + "🏆 ".length() + 1);
 
         // Print header
         printSeparatorWithWinner(testNameWidth, algorithmNames.size(), timeWidth, winnerWidth);
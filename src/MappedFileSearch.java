@@ -0,0 +1,180 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Searches a file by memory-mapping it and matching bytes directly in the mapped buffer.
+ *
+ * The file is never decoded into a String, so searching costs no heap copy of the text.
+ * Files larger than one region (1 GB by default) are mapped as several regions that
+ * overlap by m-1 bytes; a match is only reported by the region it starts in, so every
+ * match is reported exactly once. Offsets are byte offsets reported as long.
+ *
+ * Supported algorithms: "Naive", "KMP", "RabinKarp" (byte-wise versions of the engines in Analysis.java)
+ */
+public class MappedFileSearch {
+    static final long DEFAULT_REGION_SIZE = 1L << 30;
+
+    private final byte[] pat;
+    private final String algorithm;
+    private final long regionSize;
+    private final int[] lps; // Only used by KMP
+
+    public MappedFileSearch(String pattern, String algorithm) {
+        this(pattern.getBytes(StandardCharsets.UTF_8), algorithm, DEFAULT_REGION_SIZE);
+    }
+
+    public MappedFileSearch(byte[] pattern, String algorithm, long regionSize) {
+        if (!algorithm.equals("Naive") && !algorithm.equals("KMP") && !algorithm.equals("RabinKarp")) {
+            throw new IllegalArgumentException("Algorithm not found: " + algorithm);
+        }
+        if (regionSize < 1) {
+            throw new IllegalArgumentException("Region size must be positive: " + regionSize);
+        }
+        this.pat = pattern.clone();
+        this.algorithm = algorithm;
+        // Region plus overlap must fit in a single mapping (int-indexed)
+        this.regionSize = Math.min(regionSize, Integer.MAX_VALUE - (long) Math.max(pat.length, 1) + 1);
+        this.lps = algorithm.equals("KMP") ? ByteStreamMatcher.computeLPS(pat) : null;
+    }
+
+    /**
+     * Map the file and report the byte offset of every match
+     * @param file The file to search in
+     * @param sink Receives the offset of each match; return false to stop
+     */
+    public void search(Path file, LongMatchSink sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int m = pat.length;
+
+            // Handle empty pattern - matches at every position
+            if (m == 0) {
+                for (long i = 0; i <= size; i++) {
+                    if (!sink.onMatch(i)) {
+                        return;
+                    }
+                }
+                return;
+            }
+
+            for (long start = 0; start + m <= size; start += regionSize) {
+                long reportEnd = Math.min(size, start + regionSize);
+                long mapEnd = Math.min(size, reportEnd + m - 1);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, mapEnd - start);
+                int length = (int) (mapEnd - start);
+                int lastStart = (int) (reportEnd - start) - 1;
+
+                if (!searchRegion(buffer, length, lastStart, start, sink)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Count the matches in a file
+     */
+    public long count(Path file) throws IOException {
+        long[] count = {0};
+        search(file, offset -> {
+            count[0]++;
+            return true;
+        });
+        return count[0];
+    }
+
+    private boolean searchRegion(MappedByteBuffer buffer, int length, int lastStart, long base, LongMatchSink sink) {
+        switch (algorithm) {
+            case "KMP":
+                return kmp(buffer, length, lastStart, base, sink);
+            case "RabinKarp":
+                return rabinKarp(buffer, length, lastStart, base, sink);
+            default:
+                return naive(buffer, length, lastStart, base, sink);
+        }
+    }
+
+    private boolean naive(MappedByteBuffer buffer, int length, int lastStart, long base, LongMatchSink sink) {
+        int m = pat.length;
+        int end = Math.min(lastStart, length - m);
+        for (int i = 0; i <= end; i++) {
+            int j;
+            for (j = 0; j < m; j++) {
+                if (buffer.get(i + j) != pat[j]) {
+                    break;
+                }
+            }
+            if (j == m && !sink.onMatch(base + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean kmp(MappedByteBuffer buffer, int length, int lastStart, long base, LongMatchSink sink) {
+        int m = pat.length;
+        int j = 0;
+        for (int i = 0; i < length; i++) {
+            byte b = buffer.get(i);
+            while (j > 0 && b != pat[j]) {
+                j = lps[j - 1];
+            }
+            if (b == pat[j]) {
+                j++;
+            }
+            if (j == m) {
+                int matchStart = i - m + 1;
+                if (matchStart > lastStart) {
+                    return true; // Belongs to the next region
+                }
+                if (!sink.onMatch(base + matchStart)) {
+                    return false;
+                }
+                j = lps[j - 1];
+            }
+        }
+        return true;
+    }
+
+    private boolean rabinKarp(MappedByteBuffer buffer, int length, int lastStart, long base, LongMatchSink sink) {
+        int m = pat.length;
+        if (m > length) {
+            return true;
+        }
+        long patternHash = 0;
+        long textHash = 0;
+        long h = RollingHash.power(m - 1);
+
+        // Same Mersenne-61 hash as RabinKarp, over unsigned bytes
+        for (int i = 0; i < m; i++) {
+            patternHash = RollingHash.append(patternHash, (char) (pat[i] & 0xFF));
+            textHash = RollingHash.append(textHash, (char) (buffer.get(i) & 0xFF));
+        }
+
+        int end = Math.min(lastStart, length - m);
+        for (int i = 0; i <= end; i++) {
+            if (patternHash == textHash) {
+                boolean match = true;
+                for (int j = 0; j < m; j++) {
+                    if (buffer.get(i + j) != pat[j]) {
+                        match = false;
+                        break;
+                    }
+                }
+                if (match && !sink.onMatch(base + i)) {
+                    return false;
+                }
+            }
+
+            // Calculate hash value for next window
+            if (i < length - m) {
+                textHash = RollingHash.roll(textHash, (char) (buffer.get(i) & 0xFF), (char) (buffer.get(i + m) & 0xFF), h);
+            }
+        }
+        return true;
+    }
+}
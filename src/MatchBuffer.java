@@ -0,0 +1,70 @@
+/**
+ * A MatchSink that writes match indices into a caller-supplied int array.
+ *
+ * The buffer can be cleared and reused between searches. When the array is
+ * full the search is stopped and hasOverflowed() returns true, so the caller
+ * can retry with a bigger buffer or process what was found so far.
+ */
+public class MatchBuffer implements MatchSink {
+    private final int[] buffer;
+    private int size;
+    private boolean overflowed;
+
+    public MatchBuffer(int capacity) {
+        this(new int[capacity]);
+    }
+
+    public MatchBuffer(int[] buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public boolean onMatch(int index) {
+        if (size == buffer.length) {
+            overflowed = true;
+            return false;
+        }
+        buffer[size++] = index;
+        return true;
+    }
+
+    /**
+     * Forget all stored matches so the buffer can be used for another search
+     */
+    public void clear() {
+        size = 0;
+        overflowed = false;
+    }
+
+    /**
+     * @return Number of matches stored in the buffer
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param i Position in the buffer (0 to size()-1)
+     * @return The match index stored at position i
+     */
+    public int get(int i) {
+        if (i >= size) {
+            throw new IndexOutOfBoundsException("Index " + i + " out of bounds for size " + size);
+        }
+        return buffer[i];
+    }
+
+    /**
+     * @return The backing array; only the first size() entries are valid
+     */
+    public int[] array() {
+        return buffer;
+    }
+
+    /**
+     * @return true if a match was dropped because the buffer was full
+     */
+    public boolean hasOverflowed() {
+        return overflowed;
+    }
+}
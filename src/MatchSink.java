@@ -0,0 +1,16 @@
+/**
+ * Receives match positions from a string matching algorithm one at a time.
+ *
+ * Algorithms push each index straight into the sink as soon as it is found,
+ * so no per-match objects are created while searching.
+ */
+@FunctionalInterface
+public interface MatchSink {
+
+    /**
+     * Called once for every match, in increasing order of index
+     * @param index The index in the text where the pattern was found
+     * @return true to keep searching, false to stop the search early
+     */
+    boolean onMatch(int index);
+}
@@ -0,0 +1,18 @@
+/**
+ * Receives matches from a multi-pattern search one at a time.
+ *
+ * Like MatchSink, but each match also carries the id of the pattern that was
+ * found (its index in the pattern set given to the matcher).
+ */
+@FunctionalInterface
+public interface MultiMatchSink {
+
+    /**
+     * Called once for every match, in text order (by end position for AhoCorasick,
+     * by start position for WuManber)
+     * @param patternId Index of the matching pattern in the pattern set
+     * @param index The index in the text where the pattern starts
+     * @return true to keep searching, false to stop the search early
+     */
+    boolean onMatch(int patternId, int index);
+}
@@ -0,0 +1,64 @@
+/**
+ * A set of patterns preprocessed once so a text can be searched for all of them
+ * in a single pass, instead of one Solution.Solve call per pattern.
+ *
+ * Pattern ids are the indices in the array given to the constructor. Patterns
+ * must not be empty; duplicates are allowed and each copy is reported with its
+ * own id. A matcher is immutable and thread-safe once built.
+ */
+public abstract class MultiPatternMatcher {
+    protected final String[] patterns;
+
+    protected MultiPatternMatcher(String[] patterns) {
+        for (int id = 0; id < patterns.length; id++) {
+            if (patterns[id] == null || patterns[id].isEmpty()) {
+                throw new IllegalArgumentException("Pattern " + id + " is empty");
+            }
+        }
+        this.patterns = patterns.clone();
+    }
+
+    /**
+     * Search the text and push every (pattern id, start index) pair into the sink.
+     * The search stops as soon as the sink returns false.
+     */
+    public abstract void search(String text, MultiMatchSink sink);
+
+    /**
+     * Count the matches of all patterns in the text
+     */
+    public long count(String text) {
+        long[] count = new long[1];
+        search(text, (patternId, index) -> {
+            count[0]++;
+            return true;
+        });
+        return count[0];
+    }
+
+    public int getPatternCount() {
+        return patterns.length;
+    }
+
+    public String getPattern(int patternId) {
+        return patterns[patternId];
+    }
+
+    /**
+     * Rough number of bytes held by this object (patterns plus tables)
+     */
+    public long estimatedSize() {
+        long size = 64 + 8L * patterns.length;
+        for (String pattern : patterns) {
+            size += 40 + 2L * pattern.length();
+        }
+        return size;
+    }
+
+    /**
+     * Get the name of this algorithm
+     */
+    public String getName() {
+        return this.getClass().getSimpleName();
+    }
+}
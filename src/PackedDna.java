@@ -0,0 +1,188 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * A nucleotide sequence packed 2 bits per base: A = 0, C = 1, G = 2, T = 3,
+ * 32 bases per long with base i in bits 2 * (i % 32) of word i / 32.
+ *
+ * Any other char (N, lowercase, IUPAC codes...) is kept as an exception: its
+ * position and char are stored separately and it is packed as A. charAt() and
+ * toString() return the exact original chars, so offsets found on a PackedDna
+ * are the offsets Solution reports on the same text as a String.
+ *
+ * Memory is n / 4 bytes plus 6 bytes per exception, against 1-2 bytes per char
+ * for a String.
+ */
+public class PackedDna {
+    private static final String BASES = "ACGT";
+
+    private long[] words;
+    private int length;
+    private int[] exceptionPositions; // Sorted positions of non-ACGT chars
+    private char[] exceptionChars;
+    private int exceptionCount;
+
+    private PackedDna(int capacity) {
+        this.words = new long[Math.max((capacity + 31) >>> 5, 1)];
+        this.exceptionPositions = new int[4];
+        this.exceptionChars = new char[4];
+    }
+
+    /**
+     * Pack a sequence held in memory, keeping every char (including line breaks)
+     */
+    public static PackedDna of(CharSequence sequence) {
+        PackedDna dna = new PackedDna(sequence.length());
+        for (int i = 0; i < sequence.length(); i++) {
+            dna.append(sequence.charAt(i));
+        }
+        return dna;
+    }
+
+    /**
+     * Load a plain or FASTA-style sequence file.
+     * Lines starting with '>' (FASTA headers) or ';' (comments) are skipped and line
+     * breaks are not part of the sequence, so the records of a multi-record FASTA
+     * file are concatenated.
+     */
+    public static PackedDna read(Path file) throws IOException {
+        long size = Files.size(file);
+        PackedDna dna = new PackedDna((int) Math.min(size, Integer.MAX_VALUE - 8));
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(">") || line.startsWith(";")) {
+                    continue;
+                }
+                int end = line.length();
+                while (end > 0 && Character.isWhitespace(line.charAt(end - 1))) {
+                    end--;
+                }
+                for (int i = 0; i < end; i++) {
+                    dna.append(line.charAt(i));
+                }
+            }
+        }
+        dna.trimToSize();
+        return dna;
+    }
+
+    private void append(char c) {
+        if (length == Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Sequence too long for int offsets");
+        }
+        int word = length >>> 5;
+        if (word == words.length) {
+            words = Arrays.copyOf(words, words.length * 2);
+        }
+        int code = code(c);
+        if (code < 0) {
+            if (exceptionCount == exceptionPositions.length) {
+                exceptionPositions = Arrays.copyOf(exceptionPositions, exceptionCount * 2);
+                exceptionChars = Arrays.copyOf(exceptionChars, exceptionCount * 2);
+            }
+            exceptionPositions[exceptionCount] = length;
+            exceptionChars[exceptionCount++] = c;
+            code = 0;
+        }
+        words[word] |= (long) code << ((length & 31) << 1);
+        length++;
+    }
+
+    private void trimToSize() {
+        words = Arrays.copyOf(words, Math.max((length + 31) >>> 5, 1));
+        exceptionPositions = Arrays.copyOf(exceptionPositions, exceptionCount);
+        exceptionChars = Arrays.copyOf(exceptionChars, exceptionCount);
+    }
+
+    /**
+     * 2-bit code of an A/C/G/T char, -1 for anything else
+     */
+    static int code(char c) {
+        switch (c) {
+            case 'A':
+                return 0;
+            case 'C':
+                return 1;
+            case 'G':
+                return 2;
+            case 'T':
+                return 3;
+            default:
+                return -1;
+        }
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public char charAt(int i) {
+        if (i < 0 || i >= length) {
+            throw new IndexOutOfBoundsException("Index " + i + " out of bounds for length " + length);
+        }
+        int exception = Arrays.binarySearch(exceptionPositions, 0, exceptionCount, i);
+        if (exception >= 0) {
+            return exceptionChars[exception];
+        }
+        return BASES.charAt(baseAt(i));
+    }
+
+    /**
+     * Packed code at position i (0 for exceptions)
+     */
+    int baseAt(int i) {
+        return (int) (words[i >>> 5] >>> ((i & 31) << 1)) & 3;
+    }
+
+    /**
+     * The 32 packed bases starting at position i (bases past the end read as 0)
+     */
+    long window(int i) {
+        int word = i >>> 5;
+        int shift = (i & 31) << 1;
+        long bases = words[word] >>> shift;
+        if (shift != 0 && word + 1 < words.length) {
+            bases |= words[word + 1] << (64 - shift);
+        }
+        return bases;
+    }
+
+    long[] words() {
+        return words;
+    }
+
+    int exceptionCount() {
+        return exceptionCount;
+    }
+
+    /**
+     * Position of the i-th non-ACGT char, in increasing order
+     */
+    int exceptionPosition(int i) {
+        return exceptionPositions[i];
+    }
+
+    /**
+     * Rough number of bytes held by this sequence
+     */
+    public long estimatedSize() {
+        return 48 + 8L * words.length + 6L * exceptionPositions.length;
+    }
+
+    @Override
+    public String toString() {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = BASES.charAt(baseAt(i));
+        }
+        for (int e = 0; e < exceptionCount; e++) {
+            chars[exceptionPositions[e]] = exceptionChars[e];
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,128 @@
+import java.util.Arrays;
+
+/**
+ * Exact search of one pattern in a PackedDna, comparing packed words instead of chars.
+ *
+ * A 64-bit register holds the last min(m, 32) text bases and is shifted by one base
+ * (2 bits) per position; a match of the pattern's first 32 bases is one long
+ * comparison. Longer patterns then compare the rest 32 bases at a time, reading each
+ * unaligned window with two shifts and a mask. A candidate covering a non-ACGT text
+ * char is rejected, as those are packed as A.
+ *
+ * A pattern that itself contains a non-ACGT char cannot be packed; it falls back to
+ * KMP over the text's chars (one String copy of the text).
+ */
+public class PackedDnaMatcher {
+    private static final Solution FALLBACK = SolutionFactory.create("KMP"); // For patterns that cannot be packed
+
+    private final String pattern;
+    private final int prefixLength; // Bases held in the rolling register, min(m, 32)
+    private final long prefix; // Packed first prefixLength bases
+    private final long[] rest; // Packed bases from 32 on, 32 per word
+    private final long lastMask; // Valid bits of the last word of rest
+    private final boolean packable;
+
+    public PackedDnaMatcher(String pattern) {
+        this.pattern = pattern;
+        int m = pattern.length();
+        boolean allBases = true;
+        for (int i = 0; i < m && allBases; i++) {
+            allBases = PackedDna.code(pattern.charAt(i)) >= 0;
+        }
+        this.packable = allBases;
+        this.prefixLength = Math.min(m, 32);
+        long[] packed = new long[(m + 31) >>> 5];
+        if (allBases) {
+            for (int i = 0; i < m; i++) {
+                packed[i >>> 5] |= (long) PackedDna.code(pattern.charAt(i)) << ((i & 31) << 1);
+            }
+        }
+        this.prefix = packed.length > 0 ? packed[0] : 0;
+        this.rest = packed.length > 1 ? Arrays.copyOfRange(packed, 1, packed.length) : new long[0];
+        int tail = m > 32 ? (m - 32) & 31 : 0;
+        this.lastMask = tail == 0 ? -1L : (1L << (tail << 1)) - 1;
+    }
+
+    /**
+     * Report every match in increasing order; stops when the sink returns false
+     */
+    public void search(PackedDna text, MatchSink sink) {
+        int n = text.length();
+        int m = pattern.length();
+        if (m == 0) {
+            for (int i = 0; i <= n; i++) {
+                if (!sink.onMatch(i)) {
+                    return;
+                }
+            }
+            return;
+        }
+        if (m > n) {
+            return;
+        }
+        if (!packable) {
+            FALLBACK.Solve(text.toString(), pattern, sink);
+            return;
+        }
+
+        long[] words = text.words();
+        int k = prefixLength;
+        int topShift = (k - 1) << 1;
+        int exceptions = text.exceptionCount();
+        int nextException = 0;
+        long register = 0;
+        for (int word = 0, end = 0; end < n; word++) {
+            long bases = words[word];
+            int stop = Math.min(n, end + 32);
+            for (; end < stop; end++, bases >>>= 2) {
+                // Drop the oldest base, add the base at end as the newest
+                register = (register >>> 2) | ((bases & 3) << topShift);
+                if (register != prefix || end < k - 1) {
+                    continue;
+                }
+                int start = end - k + 1;
+                if (start + m > n || !restMatches(text, start)) {
+                    continue;
+                }
+                while (nextException < exceptions && text.exceptionPosition(nextException) < start) {
+                    nextException++;
+                }
+                if (nextException < exceptions && text.exceptionPosition(nextException) < start + m) {
+                    continue;
+                }
+                if (!sink.onMatch(start)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean restMatches(PackedDna text, int start) {
+        int last = rest.length - 1;
+        for (int w = 0; w <= last; w++) {
+            long bases = text.window(start + 32 * (w + 1));
+            if (w == last) {
+                bases &= lastMask;
+            }
+            if (bases != rest[w]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public IntList findAll(PackedDna text) {
+        IntList indices = new IntList();
+        search(text, indices);
+        return indices;
+    }
+
+    public int count(PackedDna text) {
+        int[] count = {0};
+        search(text, index -> {
+            count[0]++;
+            return true;
+        });
+        return count[0];
+    }
+}
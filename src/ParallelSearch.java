@@ -0,0 +1,157 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Runs any Solution, or a single compiled pattern, on large texts using several threads.
+ *
+ * The pattern is compiled once and the same CompiledPattern is shared by all chunks
+ * (compiled patterns are thread-safe). Each chunk searches its own range of start
+ * offsets in place with CompiledPattern.search(text, from, to, sink), reading up to
+ * m-1 characters past the range so matches crossing a chunk border are still found,
+ * and nothing is reported twice. Chunks run as fork/join tasks (work-stealing) and
+ * their results are replayed into the sink in text order; once the sink stops (e.g.
+ * contains or indexOf after the first chunk with a match), chunks that have not
+ * started yet are cancelled.
+ *
+ * Chunk size adapts to the input: about 8 chunks per worker thread so idle workers
+ * can steal, but never smaller than MIN_CHUNK_SIZE so task overhead stays small.
+ */
+public class ParallelSearch extends Solution {
+    static final int MIN_CHUNK_SIZE = 64 * 1024;
+    private static final int CHUNKS_PER_THREAD = 8;
+
+    private final Solution solution; // null when built around a compiled pattern
+    private final CompiledPattern compiled; // null when built around a Solution
+    private final ForkJoinPool pool;
+
+    public ParallelSearch(Solution solution) {
+        this(solution, ForkJoinPool.commonPool());
+    }
+
+    public ParallelSearch(Solution solution, ForkJoinPool pool) {
+        this.solution = solution;
+        this.compiled = null;
+        this.pool = pool;
+    }
+
+    /**
+     * Search for one pattern compiled in advance (e.g. a WildcardSearch or case-insensitive pattern)
+     */
+    public ParallelSearch(CompiledPattern compiled) {
+        this(compiled, ForkJoinPool.commonPool());
+    }
+
+    public ParallelSearch(CompiledPattern compiled, ForkJoinPool pool) {
+        this.solution = null;
+        this.compiled = compiled;
+        this.pool = pool;
+    }
+
+    @Override
+    public void Solve(String text, String pattern, MatchSink sink) {
+        search(text, compiledFor(pattern), sink);
+    }
+
+    /**
+     * Search with the compiled pattern this was built with
+     */
+    public void search(String text, MatchSink sink) {
+        if (compiled == null) {
+            throw new IllegalStateException("Built around a Solution; pass the pattern to Solve");
+        }
+        search(text, compiled, sink);
+    }
+
+    /**
+     * Find all matches of the compiled pattern this was built with
+     */
+    public IntList findAll(String text) {
+        IntList indices = new IntList();
+        search(text, indices);
+        return indices;
+    }
+
+    private CompiledPattern compiledFor(String pattern) {
+        if (compiled == null) {
+            return solution.compile(pattern);
+        }
+        if (!compiled.getPattern().equals(pattern)) {
+            throw new IllegalArgumentException("Built for pattern \"" + compiled.getPattern() + "\", not \"" + pattern + "\"");
+        }
+        return compiled;
+    }
+
+    private void search(String text, CompiledPattern pattern, MatchSink sink) {
+        int n = text.length();
+        int chunkSize = chunkSize(n);
+
+        // Not worth splitting (the empty pattern also matches at n, which no chunk owns)
+        if (pattern.getPattern().isEmpty() || n <= chunkSize) {
+            pattern.search(text, sink);
+            return;
+        }
+
+        List<ForkJoinTask<IntList>> chunks = new ArrayList<>();
+        for (int from = 0; from < n; from += chunkSize) {
+            chunks.add(pool.submit(new ChunkTask(text, pattern, from, Math.min(n, from + chunkSize))));
+        }
+        for (int c = 0; c < chunks.size(); c++) {
+            IntList indices = chunks.get(c).join();
+            int[] data = indices.array();
+            for (int i = 0; i < indices.size(); i++) {
+                if (!sink.onMatch(data[i])) {
+                    for (int rest = c + 1; rest < chunks.size(); rest++) {
+                        chunks.get(rest).cancel(false);
+                    }
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Pick a chunk size so every worker gets several chunks to balance load
+     */
+    int chunkSize(int textLength) {
+        int chunks = pool.getParallelism() * CHUNKS_PER_THREAD;
+        return Math.max(MIN_CHUNK_SIZE, textLength / chunks);
+    }
+
+    @Override
+    public String getName() {
+        if (solution != null) {
+            return "Parallel" + solution.getName();
+        }
+        Class<?> engine = compiled.getClass().getEnclosingClass();
+        return "Parallel" + (engine != null ? engine : compiled.getClass()).getSimpleName();
+    }
+
+    /**
+     * Finds all matches starting in [from, to)
+     */
+    private static class ChunkTask extends RecursiveTask<IntList> {
+        private static final long serialVersionUID = 1L;
+
+        private final String text;
+        private final CompiledPattern pattern;
+        private final int from;
+        private final int to;
+
+        ChunkTask(String text, CompiledPattern pattern, int from, int to) {
+            this.text = text;
+            this.pattern = pattern;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected IntList compute() {
+            IntList indices = new IntList();
+            pattern.search(text, from, to, indices);
+            return indices;
+        }
+    }
+}
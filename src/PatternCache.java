@@ -0,0 +1,141 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of compiled patterns, keyed by algorithm instance and pattern.
+ * Two instances of one algorithm class get separate entries, because their
+ * configuration (and so their compiled form) may differ.
+ *
+ * Hot patterns are compiled once and then reused, so per-call preprocessing
+ * becomes a hash lookup. The cache is bounded by the estimated size in bytes of
+ * the compiled patterns (CompiledPattern.estimatedSize()), not by entry count,
+ * so a few huge patterns cannot hold an unbounded amount of memory.
+ * Safe to use from several threads.
+ */
+public class PatternCache {
+
+    private static final class Key {
+        final Solution solution;
+        final String pattern;
+        final int hash;
+
+        Key(Solution solution, String pattern) {
+            this.solution = solution;
+            this.pattern = pattern;
+            this.hash = 31 * System.identityHashCode(solution) + pattern.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash && solution == other.solution && pattern.equals(other.pattern);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private final long maxBytes;
+    private final LinkedHashMap<Key, CompiledPattern> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long currentBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param maxBytes Upper bound for the total estimated size of cached patterns
+     */
+    public PatternCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Get the compiled form of a pattern for an algorithm, compiling it on a miss
+     */
+    public CompiledPattern get(Solution solution, String pattern) {
+        Key key = new Key(solution, pattern);
+        synchronized (this) {
+            CompiledPattern cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+
+        // Compile outside the lock so other threads are not blocked by a large pattern
+        CompiledPattern compiled = solution.compile(pattern);
+        long size = compiled.estimatedSize();
+
+        synchronized (this) {
+            CompiledPattern existing = entries.get(key);
+            if (existing != null) {
+                return existing; // Another thread compiled it first
+            }
+            if (size > maxBytes) {
+                return compiled; // Too big to cache at all
+            }
+            entries.put(key, compiled);
+            currentBytes += size;
+            evictIfNeeded();
+        }
+        return compiled;
+    }
+
+    /**
+     * Search a text with the cached compiled form of the pattern
+     */
+    public void search(Solution solution, String text, String pattern, MatchSink sink) {
+        get(solution, pattern).search(text, sink);
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<Key, CompiledPattern>> it = entries.entrySet().iterator();
+        while (currentBytes > maxBytes && it.hasNext()) {
+            Map.Entry<Key, CompiledPattern> eldest = it.next();
+            currentBytes -= eldest.getValue().estimatedSize();
+            it.remove();
+            evictions++;
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        currentBytes = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("PatternCache{entries=%d, bytes=%d/%d, hits=%d, misses=%d, evictions=%d}",
+                entries.size(), currentBytes, maxBytes, hits, misses, evictions);
+    }
+}
@@ -14,7 +14,7 @@ public abstract class PreAnalysis {
      * 
      * @param text The text to search in
      * @param pattern The pattern to search for
-     * @return The name of the algorithm to use (e.g., "Naive", "KMP", "RabinKarp", "BoyerMoore", "GoCrazy")
+     * @return The name of the algorithm to use (e.g., "Naive", "KMP", "RabinKarp", "BoyerMoore", "Horspool", "Sunday", "RareAnchor", "ShiftOr", "TwoWay", "GoCrazy")
      *         Return null if you want to skip pre-analysis and run all algorithms
      * 
      * Tips for students:
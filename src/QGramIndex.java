@@ -0,0 +1,399 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * q-gram inverted index: every q-gram of the text maps to the sorted list of its
+ * offsets. A query looks up the q-grams of the pattern, intersects the lists of
+ * the rarest ones (shifted to pattern start offsets) and verifies the surviving
+ * candidates against the text with String.regionMatches.
+ *
+ * q-grams are keyed by a 64-bit polynomial hash with a fixed multiplier, so keys are
+ * stable across runs; a collision only adds candidates, which verification rejects.
+ * Posting lists are delta-encoded varints (LEB128), usually 1-2 bytes per offset.
+ *
+ * The whole index is one little-endian byte layout, so write() saves it as-is and
+ * open() memory-maps it on later runs without rebuilding:
+ *   header     magic "QGIX", version, q, text length, text hash (long), key count
+ *   directory  per key, sorted by key: key (long), posting count (int), data offset (long)
+ *   data       the posting lists
+ * The text is not stored; open() takes it and checks its length and hash.
+ * Indexes (and so files) are limited to 2 GB.
+ *
+ * Patterns shorter than q have no q-gram and are answered by a KMP scan of the text.
+ */
+public class QGramIndex extends TextIndex {
+    public static final int DEFAULT_Q = 8;
+
+    private static final int MAGIC = 0x51474958; // "QGIX"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 28;
+    private static final int ENTRY_BYTES = 20;
+    private static final long MULTIPLIER = 0x9E3779B97F4A7C15L;
+    private static final int MAX_INTERSECTED = 4; // Posting lists merged per query at most
+    private static final Solution SHORT_PATTERN_SCAN = SolutionFactory.create("KMP"); // For patterns shorter than q
+
+    private final String text;
+    private final int q;
+    private final ByteBuffer index; // Heap buffer after a build, mapped file after open()
+    private final int keyCount;
+    private final int dataStart;
+
+    private QGramIndex(String text, ByteBuffer index) {
+        this.text = text;
+        this.index = index.order(ByteOrder.LITTLE_ENDIAN);
+        if (index.capacity() < HEADER_BYTES || index.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a q-gram index");
+        }
+        if (index.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Unsupported q-gram index version: " + index.getInt(4));
+        }
+        if (index.getInt(12) != text.length() || index.getLong(16) != textHash(text)) {
+            throw new IllegalArgumentException("The q-gram index was built for a different text");
+        }
+        this.q = index.getInt(8);
+        this.keyCount = index.getInt(24);
+        this.dataStart = HEADER_BYTES + keyCount * ENTRY_BYTES;
+    }
+
+    public static QGramIndex build(String text) {
+        return build(text, DEFAULT_Q);
+    }
+
+    /**
+     * Build the index in memory
+     * @param q Length of the indexed substrings; longer is more selective but fewer patterns qualify
+     */
+    public static QGramIndex build(String text, int q) {
+        if (q < 1) {
+            throw new IllegalArgumentException("q must be positive: " + q);
+        }
+        int n = text.length();
+        int grams = Math.max(n - q + 1, 0);
+        long[] keys = new long[grams];
+        long drop = power(q - 1);
+        long key = 0;
+        for (int i = 0; i < n; i++) {
+            if (i >= q) {
+                key -= text.charAt(i - q) * drop;
+            }
+            key = key * MULTIPLIER + text.charAt(i);
+            if (i >= q - 1) {
+                keys[i - q + 1] = key;
+            }
+        }
+
+        // Distinct keys in sorted order, then the offsets of each key in CSR form
+        long[] distinct = keys.clone();
+        Arrays.sort(distinct);
+        int keyCount = 0;
+        for (int i = 0; i < distinct.length; i++) {
+            if (i == 0 || distinct[i] != distinct[i - 1]) {
+                distinct[keyCount++] = distinct[i];
+            }
+        }
+        int[] ids = new int[grams];
+        int[] starts = new int[keyCount + 1];
+        for (int i = 0; i < grams; i++) {
+            ids[i] = Arrays.binarySearch(distinct, 0, keyCount, keys[i]);
+            starts[ids[i] + 1]++;
+        }
+        keys = null;
+        for (int k = 0; k < keyCount; k++) {
+            starts[k + 1] += starts[k];
+        }
+        int[] offsets = new int[grams];
+        int[] fill = Arrays.copyOf(starts, keyCount);
+        for (int i = 0; i < grams; i++) {
+            offsets[fill[ids[i]]++] = i; // Increasing i keeps every list sorted
+        }
+        ids = null;
+
+        // Delta + varint encoding; the first delta of a list is the offset itself
+        long dataBytes = 0;
+        for (int k = 0; k < keyCount; k++) {
+            int previous = 0;
+            for (int p = starts[k]; p < starts[k + 1]; p++) {
+                dataBytes += varintLength(offsets[p] - previous);
+                previous = offsets[p];
+            }
+        }
+        long total = HEADER_BYTES + (long) keyCount * ENTRY_BYTES + dataBytes;
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("q-gram index over 2 GB, use a larger q or split the text");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) total).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(q).putInt(n).putLong(textHash(text)).putInt(keyCount);
+        int data = HEADER_BYTES + keyCount * ENTRY_BYTES;
+        int position = data;
+        for (int k = 0; k < keyCount; k++) {
+            buffer.putLong(distinct[k]).putInt(starts[k + 1] - starts[k]).putLong(position - data);
+            int previous = 0;
+            for (int p = starts[k]; p < starts[k + 1]; p++) {
+                position = putVarint(buffer, position, offsets[p] - previous);
+                previous = offsets[p];
+            }
+        }
+        buffer.clear();
+        return new QGramIndex(text, buffer);
+    }
+
+    /**
+     * Save the index so later runs can open() it instead of building
+     */
+    public void write(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer view = index.duplicate();
+            view.clear();
+            while (view.hasRemaining()) {
+                channel.write(view);
+            }
+        }
+    }
+
+    /**
+     * Memory-map an index written by write(); only the pages touched by queries are read
+     * @param text The text the index was built for (checked by length and hash)
+     */
+    public static QGramIndex open(Path file, String text) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("q-gram index file over 2 GB: " + file);
+            }
+            return new QGramIndex(text, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    @Override
+    public int length() {
+        return text.length();
+    }
+
+    public int q() {
+        return q;
+    }
+
+    @Override
+    public int count(String pattern) {
+        if (pattern.isEmpty()) {
+            return text.length() + 1;
+        }
+        int[] count = {0};
+        search(pattern, index -> {
+            count[0]++;
+            return true;
+        });
+        return count[0];
+    }
+
+    @Override
+    public boolean contains(String pattern) {
+        if (pattern.isEmpty()) {
+            return true;
+        }
+        boolean[] found = {false};
+        search(pattern, index -> {
+            found[0] = true;
+            return false;
+        });
+        return found[0];
+    }
+
+    @Override
+    public IntList findAll(String pattern) {
+        if (pattern.isEmpty()) {
+            return allPositions();
+        }
+        IntList indices = new IntList();
+        search(pattern, indices);
+        return indices;
+    }
+
+    /**
+     * Report every match of a non-empty pattern in increasing order
+     */
+    private void search(String pattern, MatchSink sink) {
+        int m = pattern.length();
+        if (m > text.length()) {
+            return;
+        }
+        if (m < q) {
+            SHORT_PATTERN_SCAN.Solve(text, pattern, sink);
+            return;
+        }
+
+        // Directory entry and posting count of every q-gram of the pattern
+        int grams = m - q + 1;
+        int[] entries = new int[grams];
+        long drop = power(q - 1);
+        long key = 0;
+        for (int j = 0; j < m; j++) {
+            if (j >= q) {
+                key -= pattern.charAt(j - q) * drop;
+            }
+            key = key * MULTIPLIER + pattern.charAt(j);
+            if (j >= q - 1) {
+                int entry = find(key);
+                if (entry < 0) {
+                    return; // A q-gram of the pattern never occurs in the text
+                }
+                entries[j - q + 1] = entry;
+            }
+        }
+
+        // Plan: q-gram offsets in pattern ordered by posting count, rarest first
+        Integer[] order = new Integer[grams];
+        for (int j = 0; j < grams; j++) {
+            order[j] = j;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(postingCount(entries[a]), postingCount(entries[b])));
+
+        int first = order[0];
+        IntList candidates = decode(entries[first], first, m);
+        for (int r = 1; r < Math.min(grams, MAX_INTERSECTED) && candidates.size() > 1; r++) {
+            int j = order[r];
+            // Merging costs a pass over the list; stop once it outweighs verifying the candidates
+            if (postingCount(entries[j]) > 8 * candidates.size()) {
+                break;
+            }
+            candidates = intersect(candidates, entries[j], j);
+        }
+
+        for (int c = 0; c < candidates.size(); c++) {
+            int start = candidates.get(c);
+            if (text.regionMatches(start, pattern, 0, m) && !sink.onMatch(start)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Decode a posting list as pattern start offsets (offset - shift) that leave room for m chars
+     */
+    private IntList decode(int entry, int shift, int m) {
+        int count = postingCount(entry);
+        IntList starts = new IntList(count);
+        int position = dataStart + (int) index.getLong(HEADER_BYTES + entry * ENTRY_BYTES + 12);
+        int offset = 0;
+        int limit = text.length() - m;
+        for (int p = 0; p < count; p++) {
+            int value = 0;
+            for (int bit = 0; ; bit += 7) {
+                byte b = index.get(position++);
+                value |= (b & 0x7F) << bit;
+                if (b >= 0) {
+                    break;
+                }
+            }
+            offset += value;
+            int start = offset - shift;
+            if (start >= 0 && start <= limit) {
+                starts.add(start);
+            }
+        }
+        return starts;
+    }
+
+    /**
+     * The candidates c for which c + shift is in the posting list (both sorted)
+     */
+    private IntList intersect(IntList candidates, int entry, int shift) {
+        int count = postingCount(entry);
+        int position = dataStart + (int) index.getLong(HEADER_BYTES + entry * ENTRY_BYTES + 12);
+        IntList kept = new IntList(candidates.size());
+        int offset = 0;
+        int p = 0;
+        for (int c = 0; c < candidates.size(); c++) {
+            int wanted = candidates.get(c) + shift;
+            while (p < count && (p == 0 || offset < wanted)) {
+                int value = 0;
+                for (int bit = 0; ; bit += 7) {
+                    byte b = index.get(position++);
+                    value |= (b & 0x7F) << bit;
+                    if (b >= 0) {
+                        break;
+                    }
+                }
+                offset += value;
+                p++;
+            }
+            if (p > 0 && offset == wanted) {
+                kept.add(candidates.get(c));
+            } else if (p == count && offset < wanted) {
+                break;
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Binary search of the directory
+     * @return Entry number of the key, or -1
+     */
+    private int find(long key) {
+        int lo = 0;
+        int hi = keyCount - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            long k = index.getLong(HEADER_BYTES + mid * ENTRY_BYTES);
+            if (k < key) {
+                lo = mid + 1;
+            } else if (k > key) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int postingCount(int entry) {
+        return index.getInt(HEADER_BYTES + entry * ENTRY_BYTES + 8);
+    }
+
+    private static long power(int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= MULTIPLIER;
+        }
+        return result;
+    }
+
+    private static int varintLength(int value) {
+        int bytes = 1;
+        while ((value >>>= 7) != 0) {
+            bytes++;
+        }
+        return bytes;
+    }
+
+    private static int putVarint(ByteBuffer buffer, int position, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put(position++, (byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put(position++, (byte) value);
+        return position;
+    }
+
+    /**
+     * Fingerprint of the text, stored in the header so open() rejects a mismatched text
+     */
+    private static long textHash(String text) {
+        long hash = text.length();
+        for (int i = 0; i < text.length(); i++) {
+            hash = hash * MULTIPLIER + text.charAt(i);
+        }
+        return hash;
+    }
+
+    @Override
+    public long estimatedSize() {
+        return 64 + 2L * text.length() + index.capacity();
+    }
+}
@@ -0,0 +1,94 @@
+import java.util.Arrays;
+
+/**
+ * Rabin-Karp over many patterns of the same length: one rolling hash pass over
+ * the text, and each window's hash is looked up in a hash set of the pattern hashes.
+ *
+ * The set is a primitive open-addressing table (long keys, int values, linear
+ * probing) sized to a power of two at least twice the number of patterns, so a
+ * lookup is one or two array reads and nothing is boxed. Patterns whose hashes are
+ * equal (duplicates, or a 2^-61 collision) are chained through an int array.
+ * Uses RollingHash, the same Mersenne-61 hash and random base as RabinKarp.
+ *
+ * Matches are reported in increasing order of their start index.
+ */
+public class RabinKarpSet extends MultiPatternMatcher {
+    private final int length; // Common length of all patterns
+    private final long power; // BASE^(length-1) mod 2^61-1
+    private final long[] keys; // Pattern hashes
+    private final int[] firstId; // First pattern id with the hash in the same slot, -1 for an empty slot
+    private final int[] nextId; // Next pattern id with the same hash, -1 if none
+    private final int mask;
+
+    public RabinKarpSet(String... patterns) {
+        super(patterns);
+        int count = this.patterns.length;
+        this.length = count == 0 ? 0 : this.patterns[0].length();
+        for (String pattern : this.patterns) {
+            if (pattern.length() != length) {
+                throw new IllegalArgumentException("All patterns must have length " + length + ": \"" + pattern + "\"");
+            }
+        }
+        this.power = RollingHash.power(Math.max(0, length - 1));
+
+        int capacity = Integer.highestOneBit(Math.max(2, count) * 2 - 1) << 1;
+        this.mask = capacity - 1;
+        this.keys = new long[capacity];
+        this.firstId = new int[capacity];
+        this.nextId = new int[count];
+        Arrays.fill(firstId, -1);
+        Arrays.fill(nextId, -1);
+
+        for (int id = 0; id < count; id++) {
+            long hash = RollingHash.hash(this.patterns[id], 0, length);
+            int slot = slot(hash);
+            if (firstId[slot] < 0) {
+                keys[slot] = hash;
+                firstId[slot] = id;
+            } else {
+                int last = firstId[slot];
+                while (nextId[last] >= 0) {
+                    last = nextId[last];
+                }
+                nextId[last] = id;
+            }
+        }
+    }
+
+    /**
+     * Slot holding the hash, or the empty slot where it would be inserted
+     */
+    private int slot(long hash) {
+        int slot = (int) (hash ^ (hash >>> 29)) & mask;
+        while (firstId[slot] >= 0 && keys[slot] != hash) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    @Override
+    public void search(String text, MultiMatchSink sink) {
+        int n = text.length();
+        int m = length;
+        if (patterns.length == 0 || m > n) {
+            return;
+        }
+
+        long textHash = RollingHash.hash(text, 0, m);
+        for (int i = 0; i <= n - m; i++) {
+            for (int id = firstId[slot(textHash)]; id >= 0; id = nextId[id]) {
+                if (text.regionMatches(i, patterns[id], 0, m) && !sink.onMatch(id, i)) {
+                    return;
+                }
+            }
+            if (i < n - m) {
+                textHash = RollingHash.roll(textHash, text.charAt(i), text.charAt(i + m), power);
+            }
+        }
+    }
+
+    @Override
+    public long estimatedSize() {
+        return super.estimatedSize() + 8L * keys.length + 4L * (firstId.length + nextId.length);
+    }
+}
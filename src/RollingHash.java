@@ -0,0 +1,72 @@
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Polynomial rolling hash modulo the Mersenne prime 2^61-1, shared by RabinKarp,
+ * RabinKarpSet, the Rabin-Karp stream matcher and MappedFileSearch.
+ * The base is drawn at random when the class loads, so no fixed input can force
+ * collisions; two different windows of m characters collide with probability about m / 2^61.
+ */
+final class RollingHash {
+    static final long MOD = (1L << 61) - 1; // Mersenne prime 2^61-1
+    static final long BASE = 256 + ThreadLocalRandom.current().nextLong(MOD - 512); // Random base, larger than Latin-1
+
+    private RollingHash() {
+    }
+
+    /**
+     * Hash of s[from .. from+len)
+     */
+    static long hash(String s, int from, int len) {
+        long hash = 0;
+        for (int i = from; i < from + len; i++) {
+            hash = append(hash, s.charAt(i));
+        }
+        return hash;
+    }
+
+    /**
+     * Extend a hash by one character on the right
+     */
+    static long append(long hash, char in) {
+        return addMod(mulMod(hash, BASE), in);
+    }
+
+    /**
+     * Slide a window hash by one character
+     * @param h BASE^(m-1) mod MOD for a window of m characters
+     */
+    static long roll(long hash, char out, char in, long h) {
+        long removed = hash - mulMod(out, h);
+        if (removed < 0) {
+            removed += MOD;
+        }
+        return append(removed, in);
+    }
+
+    /**
+     * BASE^exponent mod MOD
+     */
+    static long power(int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result = mulMod(result, BASE);
+        }
+        return result;
+    }
+
+    /**
+     * a * b mod 2^61-1 for a, b < 2^61, using 2^61 = 1 (mod 2^61-1) to fold the 122-bit product
+     */
+    static long mulMod(long a, long b) {
+        long low = a * b;
+        long high = Math.multiplyHigh(a, b);
+        long folded = (low & MOD) + (low >>> 61) + (high << 3);
+        folded = (folded & MOD) + (folded >>> 61);
+        return folded >= MOD ? folded - MOD : folded;
+    }
+
+    private static long addMod(long a, long b) {
+        long sum = a + b;
+        return sum >= MOD ? sum - MOD : sum;
+    }
+}
@@ -0,0 +1,118 @@
+import java.util.Arrays;
+
+/**
+ * Compiled Shift-Or pattern: a character class per character (through a CharIntMap)
+ * and one mask of ceil(m/64) words per class. ShiftOr builds it for exact patterns,
+ * WildcardSearch for wildcards and character classes.
+ */
+class ShiftOrPattern extends CompiledPattern {
+    private final CharIntMap charClass;
+    private final int length; // Number of positions matched (the pattern length for exact patterns)
+    private final int words; // Number of 64-bit words per mask
+    private final long[] masks; // masks[class * words + w], bit j cleared where position j accepts the class
+
+    /**
+     * @param pattern The pattern as written (for exact patterns, the characters to match)
+     * @param charClass Maps each character to its class, 0 for characters with no class of their own
+     * @param length Number of text characters one match covers
+     * @param masks ceil(length/64) words per class, bit j cleared where position j accepts the class
+     */
+    ShiftOrPattern(String pattern, CharIntMap charClass, int length, long[] masks) {
+        super(pattern);
+        this.charClass = charClass;
+        this.length = length;
+        this.words = wordsFor(length);
+        this.masks = masks;
+    }
+
+    @Override
+    public void search(String text, MatchSink sink) {
+        search(text, 0, text.length(), sink, true);
+    }
+
+    @Override
+    public void searchNonOverlapping(String text, MatchSink sink) {
+        search(text, 0, text.length(), sink, false);
+    }
+
+    @Override
+    public void search(String text, int from, int to, MatchSink sink) {
+        search(text, from, Math.min(text.length(), to + length - 1), sink, true);
+    }
+
+    /**
+     * Search text[from, n) as if it were the whole text, reporting indices in text
+     */
+    private void search(String text, int from, int n, MatchSink sink, boolean overlapping) {
+        int m = length;
+
+        // Handle empty pattern - matches at every position
+        if (m == 0) {
+            for (int i = from; i <= n; i++) {
+                if (!sink.onMatch(i)) {
+                    return;
+                }
+            }
+            return;
+        }
+
+        if (words == 1) {
+            searchSingleWord(text, from, n, sink, overlapping);
+        } else {
+            searchMultiWord(text, from, n, sink, overlapping);
+        }
+    }
+
+    private void searchSingleWord(String text, int from, int n, MatchSink sink, boolean overlapping) {
+        int m = length;
+        long matchBit = 1L << (m - 1);
+        long state = ~0L;
+        for (int i = from; i < n; i++) {
+            state = (state << 1) | masks[charClass.get(text.charAt(i))];
+            if ((state & matchBit) == 0) {
+                if (!sink.onMatch(i - m + 1)) {
+                    return;
+                }
+                if (!overlapping) {
+                    state = ~0L; // Drop the partial matches that overlap this one
+                }
+            }
+        }
+    }
+
+    private void searchMultiWord(String text, int from, int n, MatchSink sink, boolean overlapping) {
+        int m = length;
+        int top = (m - 1) >>> 6;
+        long matchBit = 1L << ((m - 1) & 63);
+        long[] state = new long[words];
+        Arrays.fill(state, ~0L);
+        for (int i = from; i < n; i++) {
+            int row = charClass.get(text.charAt(i)) * words;
+            // Shift the whole bit string left by one, high words first so each still sees its neighbour's old top bit
+            for (int w = words - 1; w > 0; w--) {
+                state[w] = (state[w] << 1) | (state[w - 1] >>> 63) | masks[row + w];
+            }
+            state[0] = (state[0] << 1) | masks[row];
+            if ((state[top] & matchBit) == 0) {
+                if (!sink.onMatch(i - m + 1)) {
+                    return;
+                }
+                if (!overlapping) {
+                    Arrays.fill(state, ~0L);
+                }
+            }
+        }
+    }
+
+    @Override
+    public long estimatedSize() {
+        return super.estimatedSize() + charClass.estimatedSize() + 8L * masks.length;
+    }
+
+    /**
+     * Number of 64-bit words per mask for a pattern of length positions
+     */
+    static int wordsFor(int length) {
+        return Math.max(1, (length + 63) >>> 6);
+    }
+}
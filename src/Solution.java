@@ -1,7 +1,5 @@
 import java.util.HashSet;
 import java.util.Set;
-import java.util.List;
-import java.util.ArrayList;
 
 public abstract class Solution {
     static final Set<Class<? extends Solution>> SUBCLASSES = new HashSet<>();
@@ -16,21 +14,155 @@ public abstract class Solution {
      * @param pattern The pattern to search for
      * @return Comma-separated string of indices where pattern is found, or empty string if not found
      */
-    public abstract String Solve(String text, String pattern);
+    public String Solve(String text, String pattern) {
+        return indicesToString(findAll(text, pattern));
+    }
+
+    /**
+     * Find all matches and return them as a primitive list
+     * @param text The text to search in
+     * @param pattern The pattern to search for
+     * @return Indices where pattern is found, in increasing order
+     */
+    public IntList findAll(String text, String pattern) {
+        IntList indices = new IntList();
+        Solve(text, pattern, indices);
+        return indices;
+    }
+
+    /**
+     * Check whether the pattern occurs at all; the search stops at the first match
+     * @param text The text to search in
+     * @param pattern The pattern to search for
+     * @return true if the pattern occurs in the text
+     */
+    public boolean contains(String text, String pattern) {
+        return indexOf(text, pattern) >= 0;
+    }
+
+    /**
+     * Find the first match; the search stops there
+     * @param text The text to search in
+     * @param pattern The pattern to search for
+     * @return Index of the first match, or -1 if there is none
+     */
+    public int indexOf(String text, String pattern) {
+        int[] first = {-1};
+        Solve(text, pattern, index -> {
+            first[0] = index;
+            return false;
+        });
+        return first[0];
+    }
+
+    /**
+     * Count the matches without storing them
+     * @param text The text to search in
+     * @param pattern The pattern to search for
+     * @return Number of matches
+     */
+    public int count(String text, String pattern) {
+        int[] count = {0};
+        Solve(text, pattern, index -> {
+            count[0]++;
+            return true;
+        });
+        return count[0];
+    }
+
+    /**
+     * Find at most limit matches; the search stops as soon as the last one is found
+     * @param text The text to search in
+     * @param pattern The pattern to search for
+     * @param limit Maximum number of matches to return
+     * @return The first limit indices (or fewer), in increasing order
+     */
+    public IntList findFirst(String text, String pattern, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Negative limit: " + limit);
+        }
+        IntList indices = new IntList(Math.min(limit, 16));
+        if (limit > 0) {
+            Solve(text, pattern, index -> {
+                indices.add(index);
+                return indices.size() < limit;
+            });
+        }
+        return indices;
+    }
+
+    /**
+     * Search for the pattern and push every match into a sink.
+     * Matches are reported in increasing order and nothing is allocated per match.
+     * The search stops as soon as the sink returns false.
+     * @param text The text to search in
+     * @param pattern The pattern to search for
+     * @param sink Receives the index of each match
+     */
+    public abstract void Solve(String text, String pattern, MatchSink sink);
+
+    /**
+     * Leftmost non-overlapping matches: after a match at i the search continues at
+     * i + m, so e.g. "AAA" in "AAAAAAA" is found at 0 and 3 only.
+     * Engines restart their state after a match (KMP from state 0, Boyer-Moore and
+     * Horspool shift by m, Shift-Or clears its partial matches) instead of filtering
+     * the overlapping results afterwards.
+     * @param text The text to search in
+     * @param pattern The pattern to search for
+     * @param sink Receives the index of each match
+     */
+    public void SolveNonOverlapping(String text, String pattern, MatchSink sink) {
+        compile(pattern).searchNonOverlapping(text, sink);
+    }
+
+    /**
+     * Preprocess the pattern once so it can be searched in many texts.
+     * Algorithms with tables (LPS, hashes, skip tables) override this to keep them;
+     * the default just remembers the pattern and calls Solve for every search.
+     * @param pattern The pattern to search for
+     * @return An immutable, thread-safe compiled pattern
+     */
+    public CompiledPattern compile(String pattern) {
+        return new SolutionPattern(this, pattern);
+    }
+
+    /**
+     * Case-insensitive search: text and pattern characters are compared after
+     * CaseFolding.fold, one character at a time, so the text is never copied.
+     * @param text The text to search in
+     * @param pattern The pattern to search for
+     * @param sink Receives the index of each match
+     */
+    public void SolveIgnoreCase(String text, String pattern, MatchSink sink) {
+        compileIgnoreCase(pattern).search(text, sink);
+    }
+
+    /**
+     * Preprocess the pattern once for case-insensitive search.
+     * KMP, BoyerMoore and RabinKarp build their tables over the folded pattern;
+     * the default is a naive scan that folds each text character it compares.
+     * @param pattern The pattern to search for
+     * @return An immutable, thread-safe compiled pattern that ignores case
+     */
+    public CompiledPattern compileIgnoreCase(String pattern) {
+        return new FoldingPattern(pattern);
+    }
 
     /**
      * Helper method to convert list of indices to comma-separated string
      * @param indices List of indices where pattern was found
      * @return Comma-separated string of indices
      */
-    protected String indicesToString(List<Integer> indices) {
-        if (indices.isEmpty()) {
+    protected String indicesToString(IntList indices) {
+        int size = indices.size();
+        if (size == 0) {
             return "";
         }
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < indices.size(); i++) {
-            sb.append(indices.get(i));
-            if (i < indices.size() - 1) {
+        int[] data = indices.array();
+        StringBuilder sb = new StringBuilder(size * 4);
+        for (int i = 0; i < size; i++) {
+            sb.append(data[i]);
+            if (i < size - 1) {
                 sb.append(",");
             }
         }
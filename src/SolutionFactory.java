@@ -16,4 +16,42 @@ public class SolutionFactory {
             e.printStackTrace();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Create an algorithm by class name, loading (and so registering) its class if needed.
+     * Lets code outside Analysis.java use the engines without naming their classes.
+     * @param name Class name of the algorithm, e.g. "KMP"
+     * @param args Constructor arguments, matched against the parameter types
+     * @return A new instance of the algorithm
+     */
+    static Solution create(String name, Object... args) {
+        Class<? extends Solution> algorithmClass;
+        try {
+            algorithmClass = Class.forName(name).asSubclass(Solution.class);
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IllegalArgumentException("Algorithm not found: " + name, e);
+        }
+        for (Constructor<?> constructor : algorithmClass.getDeclaredConstructors()) {
+            if (accepts(constructor.getParameterTypes(), args)) {
+                try {
+                    return (Solution) constructor.newInstance(args);
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException("Cannot create " + name, e);
+                }
+            }
+        }
+        throw new IllegalArgumentException("No constructor of " + name + " takes " + args.length + " such argument(s)");
+    }
+
+    private static boolean accepts(Class<?>[] parameterTypes, Object[] args) {
+        if (parameterTypes.length != args.length) {
+            return false;
+        }
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] != null && !parameterTypes[i].isInstance(args[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
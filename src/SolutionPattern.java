@@ -0,0 +1,17 @@
+/**
+ * Fallback for algorithms without a dedicated compiled form: keeps the pattern and
+ * calls Solution.Solve for every search
+ */
+class SolutionPattern extends CompiledPattern {
+    private final Solution solution;
+
+    SolutionPattern(Solution solution, String pattern) {
+        super(pattern);
+        this.solution = solution;
+    }
+
+    @Override
+    public void search(String text, MatchSink sink) {
+        solution.Solve(text, pattern, sink);
+    }
+}
@@ -0,0 +1,268 @@
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Searches a pattern in text that arrives in chunks, e.g. from a Reader.
+ *
+ * The text is never held in memory as a whole. Each matcher keeps just enough
+ * state between chunks to find matches that cross a chunk boundary:
+ * - KMP keeps the current LPS state
+ * - RabinKarp keeps the rolling hash and the last m characters
+ * - Any other Solution keeps the last m-1 characters and searches them again with the next chunk
+ *
+ * Matches are reported as global character offsets from the start of the stream.
+ * A matcher holds state, so use one instance per stream (call reset() to reuse it).
+ */
+public abstract class StreamMatcher {
+    static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    protected final String pattern;
+    protected long position; // Number of characters consumed so far
+    private boolean stopped;
+
+    protected StreamMatcher(String pattern) {
+        this.pattern = pattern;
+    }
+
+    /**
+     * Streaming matcher that carries the KMP state across chunks
+     */
+    public static StreamMatcher kmp(String pattern) {
+        return new KMPStreamMatcher(pattern);
+    }
+
+    /**
+     * Streaming matcher that carries the Rabin-Karp rolling hash across chunks
+     */
+    public static StreamMatcher rabinKarp(String pattern) {
+        return new RabinKarpStreamMatcher(pattern);
+    }
+
+    /**
+     * Streaming matcher that runs any Solution on each chunk plus the last m-1 characters of the previous one
+     */
+    public static StreamMatcher of(Solution solution, String pattern) {
+        return new SolutionStreamMatcher(solution, pattern);
+    }
+
+    /**
+     * Search the next chunk of the stream
+     * @param chunk Buffer holding the characters
+     * @param offset Index of the first character to use
+     * @param length Number of characters to use
+     * @param sink Receives the global offset of each match
+     * @return false if the sink asked to stop, true otherwise
+     */
+    public boolean feed(char[] chunk, int offset, int length, LongMatchSink sink) {
+        if (stopped) {
+            return false;
+        }
+        boolean more;
+        if (pattern.isEmpty()) {
+            // Empty pattern matches before every character
+            more = true;
+            for (int i = 0; i < length && more; i++) {
+                more = sink.onMatch(position + i);
+            }
+        } else {
+            more = scan(chunk, offset, length, sink);
+        }
+        position += length;
+        stopped = !more;
+        return more;
+    }
+
+    /**
+     * Signal the end of the stream. Only the empty pattern has a match here (at the end of the text).
+     * @return false if the sink asked to stop, true otherwise
+     */
+    public boolean finish(LongMatchSink sink) {
+        if (stopped) {
+            return false;
+        }
+        stopped = true;
+        return !pattern.isEmpty() || sink.onMatch(position);
+    }
+
+    /**
+     * Read the whole stream chunk by chunk and report every match.
+     * Memory use is bounded by the chunk size plus the pattern length.
+     */
+    public void search(Reader reader, LongMatchSink sink) throws IOException {
+        search(reader, sink, DEFAULT_CHUNK_SIZE);
+    }
+
+    public void search(Reader reader, LongMatchSink sink, int chunkSize) throws IOException {
+        char[] buffer = new char[chunkSize];
+        int read;
+        while ((read = reader.read(buffer, 0, buffer.length)) != -1) {
+            if (!feed(buffer, 0, read, sink)) {
+                return;
+            }
+        }
+        finish(sink);
+    }
+
+    /**
+     * Forget all state so the matcher can be used on a new stream
+     */
+    public void reset() {
+        position = 0;
+        stopped = false;
+        resetState();
+    }
+
+    /**
+     * @return Number of characters consumed so far
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * Search one chunk; the pattern is never empty here.
+     * position still holds the global offset of chunk[offset].
+     */
+    protected abstract boolean scan(char[] chunk, int offset, int length, LongMatchSink sink);
+
+    protected abstract void resetState();
+}
+
+class KMPStreamMatcher extends StreamMatcher {
+    private final char[] pat;
+    private final int[] lps;
+    private int j; // Number of pattern characters matched so far
+
+    KMPStreamMatcher(String pattern) {
+        super(pattern);
+        this.pat = pattern.toCharArray();
+        this.lps = pattern.isEmpty() ? new int[0] : Lps.compute(pattern);
+    }
+
+    @Override
+    protected boolean scan(char[] chunk, int offset, int length, LongMatchSink sink) {
+        int m = pat.length;
+        int state = j;
+        for (int k = 0; k < length; k++) {
+            char c = chunk[offset + k];
+            while (state > 0 && c != pat[state]) {
+                state = lps[state - 1];
+            }
+            if (c == pat[state]) {
+                state++;
+            }
+            if (state == m) {
+                state = lps[m - 1];
+                if (!sink.onMatch(position + k - m + 1)) {
+                    j = state;
+                    return false;
+                }
+            }
+        }
+        j = state;
+        return true;
+    }
+
+    @Override
+    protected void resetState() {
+        j = 0;
+    }
+}
+
+class RabinKarpStreamMatcher extends StreamMatcher {
+    private final char[] pat;
+    private final long patternHash;
+    private final long h; // BASE^(m-1) mod 2^61-1, same hash as RabinKarp
+    private final char[] window; // Ring buffer with the last m characters
+    private int filled; // Number of valid characters in window (up to m)
+    private int head; // Index in window of the oldest character
+    private long textHash;
+
+    RabinKarpStreamMatcher(String pattern) {
+        super(pattern);
+        this.pat = pattern.toCharArray();
+        int m = pat.length;
+        long hash = 0;
+        for (int i = 0; i < m; i++) {
+            hash = RollingHash.append(hash, pat[i]);
+        }
+        long power = RollingHash.power(Math.max(0, m - 1));
+        this.patternHash = hash;
+        this.h = power;
+        this.window = new char[m];
+    }
+
+    @Override
+    protected boolean scan(char[] chunk, int offset, int length, LongMatchSink sink) {
+        int m = pat.length;
+        for (int k = 0; k < length; k++) {
+            char c = chunk[offset + k];
+            if (filled < m) {
+                textHash = RollingHash.append(textHash, c);
+                window[filled++] = c;
+            } else {
+                char out = window[head];
+                textHash = RollingHash.roll(textHash, out, c, h);
+                window[head] = c;
+                head = head + 1 == m ? 0 : head + 1;
+            }
+            if (filled == m && textHash == patternHash && windowMatches()) {
+                if (!sink.onMatch(position + k - m + 1)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean windowMatches() {
+        int m = pat.length;
+        int idx = head;
+        for (int i = 0; i < m; i++) {
+            if (window[idx] != pat[i]) {
+                return false;
+            }
+            idx = idx + 1 == m ? 0 : idx + 1;
+        }
+        return true;
+    }
+
+    @Override
+    protected void resetState() {
+        filled = 0;
+        head = 0;
+        textHash = 0;
+    }
+}
+
+class SolutionStreamMatcher extends StreamMatcher {
+    private final Solution solution;
+    private final StringBuilder carry = new StringBuilder(); // Last m-1 characters seen
+
+    SolutionStreamMatcher(Solution solution, String pattern) {
+        super(pattern);
+        this.solution = solution;
+    }
+
+    @Override
+    protected boolean scan(char[] chunk, int offset, int length, LongMatchSink sink) {
+        int keep = pattern.length() - 1;
+        long base = position - carry.length();
+        carry.append(chunk, offset, length);
+        String window = carry.toString();
+
+        // A match cannot fit entirely inside the carried m-1 characters, so nothing is reported twice
+        boolean[] more = {true};
+        solution.Solve(window, pattern, index -> more[0] = sink.onMatch(base + index));
+
+        if (window.length() > keep) {
+            carry.delete(0, window.length() - keep);
+        }
+        return more[0];
+    }
+
+    @Override
+    protected void resetState() {
+        carry.setLength(0);
+    }
+}
@@ -0,0 +1,318 @@
+import java.util.Arrays;
+
+/**
+ * Suffix array plus LCP array over a fixed text, for answering many queries
+ * against the same text without rescanning it.
+ *
+ * The suffix array is built in linear time with SA-IS (induced sorting, Nong,
+ * Zhang and Chan), the LCP array with Kasai's algorithm. A query binary-searches
+ * the range of suffixes starting with the pattern in O(m log n), skipping the
+ * prefix already known to match both bounds. findAll then walks the range with
+ * the LCP array instead of a second binary search, and sorts the offsets.
+ *
+ * Memory: the text plus two int arrays, about 10 bytes per char (2 + 4 + 4).
+ */
+public class SuffixArrayIndex extends TextIndex {
+    private final String text;
+    private final int[] sa; // Start offsets of the suffixes in lexicographic order
+    private final int[] lcp; // lcp[i] = longest common prefix of suffixes sa[i-1] and sa[i], lcp[0] = 0
+
+    public SuffixArrayIndex(String text) {
+        this.text = text;
+        int n = text.length();
+        int[] s = new int[n];
+        int upper = 0;
+        for (int i = 0; i < n; i++) {
+            s[i] = text.charAt(i);
+            upper = Math.max(upper, s[i]);
+        }
+        this.sa = suffixArray(s, upper);
+        this.lcp = lcpArray(s, sa);
+    }
+
+    @Override
+    public int length() {
+        return text.length();
+    }
+
+    @Override
+    public int count(String pattern) {
+        if (pattern.isEmpty()) {
+            return text.length() + 1;
+        }
+        return upperBound(pattern) - lowerBound(pattern);
+    }
+
+    @Override
+    public boolean contains(String pattern) {
+        if (pattern.isEmpty()) {
+            return true;
+        }
+        int lo = lowerBound(pattern);
+        return lo < sa.length && startsWith(pattern, sa[lo]);
+    }
+
+    @Override
+    public IntList findAll(String pattern) {
+        if (pattern.isEmpty()) {
+            return allPositions();
+        }
+        int m = pattern.length();
+        int lo = lowerBound(pattern);
+        IntList indices = new IntList();
+        if (lo < sa.length && startsWith(pattern, sa[lo])) {
+            indices.add(sa[lo]);
+            // Following suffixes share at least m chars with the first one exactly while lcp >= m
+            for (int i = lo + 1; i < sa.length && lcp[i] >= m; i++) {
+                indices.add(sa[i]);
+            }
+        }
+        indices.sort();
+        return indices;
+    }
+
+    /**
+     * First suffix rank whose first m chars are >= the pattern
+     */
+    private int lowerBound(String pattern) {
+        return bound(pattern, false);
+    }
+
+    /**
+     * First suffix rank whose first m chars are > the pattern
+     */
+    private int upperBound(String pattern) {
+        return bound(pattern, true);
+    }
+
+    private int bound(String pattern, boolean upper) {
+        int m = pattern.length();
+        int lo = 0;
+        int hi = sa.length;
+        int lcpLo = 0; // Chars of the pattern known to match the suffix just below lo
+        int lcpHi = 0; // Chars of the pattern known to match the suffix at hi
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int matched = matchLength(pattern, sa[mid], Math.min(lcpLo, lcpHi));
+            boolean after = matched == m ? upper : patternIsGreater(pattern, sa[mid], matched);
+            if (after) {
+                lo = mid + 1;
+                lcpLo = matched;
+            } else {
+                hi = mid;
+                lcpHi = matched;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Check whether the suffix at start begins with the pattern
+     */
+    private boolean startsWith(String pattern, int start) {
+        return matchLength(pattern, start, 0) == pattern.length();
+    }
+
+    /**
+     * Number of leading pattern chars matching the suffix at start
+     * @param skip Number of leading chars already known to be equal
+     */
+    private int matchLength(String pattern, int start, int skip) {
+        int limit = Math.min(pattern.length(), text.length() - start);
+        int j = skip;
+        while (j < limit && pattern.charAt(j) == text.charAt(start + j)) {
+            j++;
+        }
+        return j;
+    }
+
+    /**
+     * Order of the pattern against the suffix at start, given a mismatch at matched
+     */
+    private boolean patternIsGreater(String pattern, int start, int matched) {
+        if (start + matched == text.length()) {
+            return true; // The suffix is a proper prefix of the pattern, so it sorts first
+        }
+        return pattern.charAt(matched) > text.charAt(start + matched);
+    }
+
+    public int[] suffixArray() {
+        return sa;
+    }
+
+    public int[] lcpArray() {
+        return lcp;
+    }
+
+    @Override
+    public long estimatedSize() {
+        return 64 + 2L * text.length() + 4L * sa.length + 4L * lcp.length;
+    }
+
+    /**
+     * SA-IS: classify suffixes as S or L type, sort the LMS substrings by induced
+     * sorting, name them, recurse on the reduced string if the names are not unique,
+     * and induce the full order from the sorted LMS suffixes.
+     * @param s The string, with values in [0, upper]
+     */
+    static int[] suffixArray(int[] s, int upper) {
+        int n = s.length;
+        if (n == 0) {
+            return new int[0];
+        }
+        if (n == 1) {
+            return new int[]{0};
+        }
+        if (n == 2) {
+            return s[0] < s[1] ? new int[]{0, 1} : new int[]{1, 0};
+        }
+
+        int[] sa = new int[n];
+        boolean[] sType = new boolean[n];
+        for (int i = n - 2; i >= 0; i--) {
+            sType[i] = s[i] == s[i + 1] ? sType[i + 1] : s[i] < s[i + 1];
+        }
+
+        // Bucket offsets per char, from which induce() places the L-type and S-type suffixes
+        int[] sumL = new int[upper + 2];
+        int[] sumS = new int[upper + 2];
+        for (int i = 0; i < n; i++) {
+            if (!sType[i]) {
+                sumS[s[i]]++;
+            } else {
+                sumL[s[i] + 1]++;
+            }
+        }
+        for (int c = 0; c <= upper; c++) {
+            sumS[c] += sumL[c];
+            if (c < upper) {
+                sumL[c + 1] += sumS[c];
+            }
+        }
+
+        int[] lmsMap = new int[n + 1];
+        Arrays.fill(lmsMap, -1);
+        int lmsCount = 0;
+        for (int i = 1; i < n; i++) {
+            if (!sType[i - 1] && sType[i]) {
+                lmsMap[i] = lmsCount++;
+            }
+        }
+        int[] lms = new int[lmsCount];
+        for (int i = 1, k = 0; i < n; i++) {
+            if (!sType[i - 1] && sType[i]) {
+                lms[k++] = i;
+            }
+        }
+
+        int[] buffer = new int[upper + 2];
+        induce(s, sa, sType, lms, lmsCount, sumL, sumS, buffer);
+
+        if (lmsCount > 0) {
+            int[] sortedLms = new int[lmsCount];
+            int k = 0;
+            for (int v : sa) {
+                if (lmsMap[v] != -1) {
+                    sortedLms[k++] = v;
+                }
+            }
+
+            // Name the LMS substrings; equal substrings get equal names
+            int[] reduced = new int[lmsCount];
+            int names = 0;
+            reduced[lmsMap[sortedLms[0]]] = 0;
+            for (int i = 1; i < lmsCount; i++) {
+                int l = sortedLms[i - 1];
+                int r = sortedLms[i];
+                int endL = lmsMap[l] + 1 < lmsCount ? lms[lmsMap[l] + 1] : n;
+                int endR = lmsMap[r] + 1 < lmsCount ? lms[lmsMap[r] + 1] : n;
+                boolean same = true;
+                if (endL - l != endR - r) {
+                    same = false;
+                } else {
+                    while (l < endL && s[l] == s[r]) {
+                        l++;
+                        r++;
+                    }
+                    if (l == n || s[l] != s[r]) {
+                        same = false;
+                    }
+                }
+                if (!same) {
+                    names++;
+                }
+                reduced[lmsMap[sortedLms[i]]] = names;
+            }
+
+            int[] reducedSa = suffixArray(reduced, names);
+            for (int i = 0; i < lmsCount; i++) {
+                sortedLms[i] = lms[reducedSa[i]];
+            }
+            induce(s, sa, sType, sortedLms, lmsCount, sumL, sumS, buffer);
+        }
+        return sa;
+    }
+
+    /**
+     * Place the LMS suffixes at the ends of their buckets, then induce the L-type
+     * suffixes left to right and the S-type suffixes right to left
+     */
+    private static void induce(int[] s, int[] sa, boolean[] sType, int[] lms, int lmsCount,
+                               int[] sumL, int[] sumS, int[] buffer) {
+        int n = s.length;
+        Arrays.fill(sa, -1);
+        System.arraycopy(sumS, 0, buffer, 0, sumS.length);
+        for (int i = 0; i < lmsCount; i++) {
+            int d = lms[i];
+            if (d != n) {
+                sa[buffer[s[d]]++] = d;
+            }
+        }
+        System.arraycopy(sumL, 0, buffer, 0, sumL.length);
+        sa[buffer[s[n - 1]]++] = n - 1;
+        for (int i = 0; i < n; i++) {
+            int v = sa[i];
+            if (v >= 1 && !sType[v - 1]) {
+                sa[buffer[s[v - 1]]++] = v - 1;
+            }
+        }
+        System.arraycopy(sumL, 0, buffer, 0, sumL.length);
+        for (int i = n - 1; i >= 0; i--) {
+            int v = sa[i];
+            if (v >= 1 && sType[v - 1]) {
+                sa[--buffer[s[v - 1] + 1]] = v - 1;
+            }
+        }
+    }
+
+    /**
+     * Kasai's algorithm: walk the suffixes in text order, reusing h - 1 matched chars
+     */
+    static int[] lcpArray(int[] s, int[] sa) {
+        int n = s.length;
+        int[] lcp = new int[n];
+        if (n == 0) {
+            return lcp;
+        }
+        int[] rank = new int[n];
+        for (int i = 0; i < n; i++) {
+            rank[sa[i]] = i;
+        }
+        int h = 0;
+        for (int i = 0; i < n; i++) {
+            if (h > 0) {
+                h--;
+            }
+            if (rank[i] == 0) {
+                h = 0;
+                continue;
+            }
+            int j = sa[rank[i] - 1];
+            while (i + h < n && j + h < n && s[i + h] == s[j + h]) {
+                h++;
+            }
+            lcp[rank[i]] = h;
+        }
+        return lcp;
+    }
+}
@@ -0,0 +1,317 @@
+import java.util.Arrays;
+
+/**
+ * Suffix automaton (DAWG) over a fixed text: the smallest automaton accepting
+ * every substring, at most 2n states and 3n transitions. contains and count walk
+ * one transition per pattern char, O(m) independent of the text length.
+ *
+ * Everything is stored in flat int arrays, with no object per state. The online
+ * construction keeps each state's transitions as a linked list in edge arrays;
+ * afterwards they are laid out per state either sparse (sorted chars, binary
+ * search) or, for states using at least half the alphabet, as a dense row indexed
+ * by the char's code.
+ *
+ * count uses the number of end positions per state, summed up the suffix-link
+ * tree. findAll walks the state's subtree of the suffix-link tree: each state
+ * created for a text position (not a clone) contributes that end position.
+ */
+public class SuffixAutomatonIndex extends TextIndex {
+    private final int n;
+    private final int states;
+    private final int[] charCode; // Alphabet code of each char, -1 if it does not occur
+    private final int sigma;
+
+    private final int[] sparseStart; // Sparse transitions of state s: [sparseStart[s], sparseStart[s + 1])
+    private final char[] sparseChars; // Sorted within each state
+    private final int[] sparseTargets;
+    private final int[] denseRow; // Row of state s in dense, -1 if its transitions are sparse
+    private final int[] dense; // [row * sigma + code] = target state, -1 if none
+
+    private final int[] occurrences; // Number of end positions of each state
+    private final int[] endPosition; // End position of the first occurrence (the exact one for non-clones)
+    private final long[] clone; // Bit per state: created as a clone, so has no end position of its own
+    private final int[] childStart; // Suffix-link tree children of state s: [childStart[s], childStart[s + 1])
+    private final int[] children;
+
+    public SuffixAutomatonIndex(String text) {
+        this.n = text.length();
+        int capacity = Math.max(2 * n, 2);
+        int edgeCapacity = Math.max(3 * n, 4);
+
+        char maxChar = 0;
+        for (int i = 0; i < n; i++) {
+            maxChar = (char) Math.max(maxChar, text.charAt(i));
+        }
+        int[] code = new int[maxChar + 1];
+        Arrays.fill(code, -1);
+        int alphabet = 0;
+        for (int i = 0; i < n; i++) {
+            if (code[text.charAt(i)] < 0) {
+                code[text.charAt(i)] = alphabet++;
+            }
+        }
+        this.charCode = code;
+        this.sigma = alphabet;
+
+        // Online construction, transitions as linked lists
+        int[] length = new int[capacity];
+        int[] link = new int[capacity];
+        int[] firstEnd = new int[capacity];
+        long[] cloned = new long[(capacity + 63) >>> 6];
+        int[] edgeHead = new int[capacity];
+        int[] edgeNext = new int[edgeCapacity];
+        char[] edgeChar = new char[edgeCapacity];
+        int[] edgeTarget = new int[edgeCapacity];
+        int edges = 0;
+        Arrays.fill(edgeHead, -1);
+        link[0] = -1;
+        int size = 1;
+        int last = 0;
+        for (int i = 0; i < n; i++) {
+            char c = text.charAt(i);
+            int cur = size++;
+            length[cur] = length[last] + 1;
+            firstEnd[cur] = i;
+            int p = last;
+            while (p != -1 && findEdge(edgeHead, edgeNext, edgeChar, p, c) < 0) {
+                edgeChar[edges] = c;
+                edgeTarget[edges] = cur;
+                edgeNext[edges] = edgeHead[p];
+                edgeHead[p] = edges++;
+                p = link[p];
+            }
+            if (p == -1) {
+                link[cur] = 0;
+            } else {
+                int q = edgeTarget[findEdge(edgeHead, edgeNext, edgeChar, p, c)];
+                if (length[p] + 1 == length[q]) {
+                    link[cur] = q;
+                } else {
+                    int copy = size++;
+                    length[copy] = length[p] + 1;
+                    link[copy] = link[q];
+                    firstEnd[copy] = firstEnd[q];
+                    cloned[copy >>> 6] |= 1L << copy;
+                    for (int e = edgeHead[q]; e >= 0; e = edgeNext[e]) {
+                        edgeChar[edges] = edgeChar[e];
+                        edgeTarget[edges] = edgeTarget[e];
+                        edgeNext[edges] = edgeHead[copy];
+                        edgeHead[copy] = edges++;
+                    }
+                    for (int e; p != -1 && edgeTarget[e = findEdge(edgeHead, edgeNext, edgeChar, p, c)] == q; p = link[p]) {
+                        edgeTarget[e] = copy;
+                    }
+                    link[q] = copy;
+                    link[cur] = copy;
+                }
+            }
+            last = cur;
+        }
+        this.states = size;
+        this.endPosition = Arrays.copyOf(firstEnd, size);
+        this.clone = Arrays.copyOf(cloned, (size + 63) >>> 6);
+        firstEnd = null;
+
+        // End position counts: 1 per non-clone state, summed from longer to shorter states
+        int[] byLength = sortByLength(length, size, n);
+        this.occurrences = new int[size];
+        for (int s = 1; s < size; s++) {
+            if ((clone[s >>> 6] & (1L << s)) == 0) {
+                occurrences[s] = 1;
+            }
+        }
+        for (int i = size - 1; i > 0; i--) {
+            int s = byLength[i];
+            occurrences[link[s]] += occurrences[s];
+        }
+        length = null;
+        byLength = null;
+
+        // Suffix-link tree in CSR form
+        this.childStart = new int[size + 1];
+        for (int s = 1; s < size; s++) {
+            childStart[link[s] + 1]++;
+        }
+        for (int s = 0; s < size; s++) {
+            childStart[s + 1] += childStart[s];
+        }
+        this.children = new int[Math.max(size - 1, 0)];
+        int[] fill = Arrays.copyOf(childStart, size);
+        for (int s = 1; s < size; s++) {
+            children[fill[link[s]]++] = s;
+        }
+        link = null;
+        fill = null;
+
+        // Final transition layout: dense rows for states using half the alphabet or more
+        int denseStates = 0;
+        int sparseEdges = 0;
+        int[] degree = new int[size];
+        for (int s = 0; s < size; s++) {
+            for (int e = edgeHead[s]; e >= 0; e = edgeNext[e]) {
+                degree[s]++;
+            }
+            if (2 * degree[s] >= sigma && degree[s] > 0) {
+                denseStates++;
+            } else {
+                sparseEdges += degree[s];
+            }
+        }
+        this.denseRow = new int[size];
+        this.dense = new int[denseStates * sigma];
+        Arrays.fill(dense, -1);
+        this.sparseStart = new int[size + 1];
+        this.sparseChars = new char[sparseEdges];
+        this.sparseTargets = new int[sparseEdges];
+        int row = 0;
+        int next = 0;
+        for (int s = 0; s < size; s++) {
+            sparseStart[s] = next;
+            if (2 * degree[s] >= sigma && degree[s] > 0) {
+                denseRow[s] = row;
+                for (int e = edgeHead[s]; e >= 0; e = edgeNext[e]) {
+                    dense[row * sigma + code[edgeChar[e]]] = edgeTarget[e];
+                }
+                row++;
+            } else {
+                denseRow[s] = -1;
+                int first = next;
+                for (int e = edgeHead[s]; e >= 0; e = edgeNext[e]) {
+                    // Insertion sort by char; states have few sparse edges
+                    int j = next++;
+                    while (j > first && sparseChars[j - 1] > edgeChar[e]) {
+                        sparseChars[j] = sparseChars[j - 1];
+                        sparseTargets[j] = sparseTargets[j - 1];
+                        j--;
+                    }
+                    sparseChars[j] = edgeChar[e];
+                    sparseTargets[j] = edgeTarget[e];
+                }
+            }
+        }
+        sparseStart[size] = next;
+    }
+
+    private static int findEdge(int[] edgeHead, int[] edgeNext, char[] edgeChar, int state, char c) {
+        for (int e = edgeHead[state]; e >= 0; e = edgeNext[e]) {
+            if (edgeChar[e] == c) {
+                return e;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Counting sort of the states by length (lengths are at most n)
+     */
+    private static int[] sortByLength(int[] length, int size, int n) {
+        int[] bucket = new int[n + 2];
+        for (int s = 0; s < size; s++) {
+            bucket[length[s] + 1]++;
+        }
+        for (int l = 0; l <= n; l++) {
+            bucket[l + 1] += bucket[l];
+        }
+        int[] order = new int[size];
+        for (int s = 0; s < size; s++) {
+            order[bucket[length[s]]++] = s;
+        }
+        return order;
+    }
+
+    /**
+     * Follow the transition on c from state, -1 if there is none
+     */
+    private int step(int state, char c) {
+        int row = denseRow[state];
+        if (row >= 0) {
+            int symbol = c < charCode.length ? charCode[c] : -1;
+            return symbol < 0 ? -1 : dense[row * sigma + symbol];
+        }
+        int lo = sparseStart[state];
+        int hi = sparseStart[state + 1] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char d = sparseChars[mid];
+            if (d < c) {
+                lo = mid + 1;
+            } else if (d > c) {
+                hi = mid - 1;
+            } else {
+                return sparseTargets[mid];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * State reached by reading the pattern from the start state, -1 if it is not a substring
+     */
+    private int walk(String pattern) {
+        int state = 0;
+        for (int i = 0; i < pattern.length() && state >= 0; i++) {
+            state = step(state, pattern.charAt(i));
+        }
+        return state;
+    }
+
+    @Override
+    public int length() {
+        return n;
+    }
+
+    @Override
+    public boolean contains(String pattern) {
+        return walk(pattern) >= 0;
+    }
+
+    @Override
+    public int count(String pattern) {
+        if (pattern.isEmpty()) {
+            return n + 1;
+        }
+        int state = walk(pattern);
+        return state < 0 ? 0 : occurrences[state];
+    }
+
+    @Override
+    public IntList findAll(String pattern) {
+        if (pattern.isEmpty()) {
+            return allPositions();
+        }
+        int state = walk(pattern);
+        if (state < 0) {
+            return new IntList();
+        }
+        int m = pattern.length();
+        IntList indices = new IntList(occurrences[state]);
+        IntList stack = new IntList();
+        stack.add(state);
+        while (!stack.isEmpty()) {
+            int s = stack.removeLast();
+            if ((clone[s >>> 6] & (1L << s)) == 0) {
+                indices.add(endPosition[s] - m + 1);
+            }
+            for (int c = childStart[s]; c < childStart[s + 1]; c++) {
+                stack.add(children[c]);
+            }
+        }
+        indices.sort();
+        return indices;
+    }
+
+    /**
+     * Number of states (at most 2n)
+     */
+    public int states() {
+        return states;
+    }
+
+    @Override
+    public long estimatedSize() {
+        return 64 + 4L * charCode.length + 4L * sparseStart.length + 2L * sparseChars.length
+                + 4L * sparseTargets.length + 4L * denseRow.length + 4L * dense.length
+                + 4L * occurrences.length + 4L * endPosition.length + 8L * clone.length
+                + 4L * childStart.length + 4L * children.length;
+    }
+}
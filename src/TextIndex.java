@@ -0,0 +1,72 @@
+/**
+ * An index built once over a fixed text, answering many pattern queries without
+ * rescanning the text (suffix array, FM-index, ...).
+ *
+ * findAll returns the same sorted offsets as Solution.findAll on the indexed text,
+ * and Solve the same comma-separated string as Solution.Solve. The empty pattern
+ * matches at every position 0..n, as with the Solution engines.
+ * An index is immutable and thread-safe once built.
+ */
+public abstract class TextIndex {
+
+    /**
+     * @return Length of the indexed text
+     */
+    public abstract int length();
+
+    /**
+     * Number of occurrences of the pattern in the indexed text
+     */
+    public abstract int count(String pattern);
+
+    /**
+     * Check whether the pattern occurs in the indexed text
+     */
+    public boolean contains(String pattern) {
+        return count(pattern) > 0;
+    }
+
+    /**
+     * Offsets of all occurrences of the pattern, in increasing order
+     */
+    public abstract IntList findAll(String pattern);
+
+    /**
+     * Offsets of all occurrences as a comma-separated string, like Solution.Solve
+     */
+    public String Solve(String pattern) {
+        IntList indices = findAll(pattern);
+        StringBuilder sb = new StringBuilder(indices.size() * 4);
+        for (int i = 0; i < indices.size(); i++) {
+            if (i > 0) {
+                sb.append(",");
+            }
+            sb.append(indices.get(i));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Rough number of bytes held by the index, including the text if it keeps it
+     */
+    public abstract long estimatedSize();
+
+    /**
+     * Get the name of this index type
+     */
+    public String getName() {
+        return this.getClass().getSimpleName();
+    }
+
+    /**
+     * Every position 0..n, the matches of the empty pattern
+     */
+    protected IntList allPositions() {
+        int n = length();
+        IntList indices = new IntList(n + 1);
+        for (int i = 0; i <= n; i++) {
+            indices.add(i);
+        }
+        return indices;
+    }
+}
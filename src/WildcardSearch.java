@@ -0,0 +1,159 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Patterns with single-character wildcards and bracket classes, matched without a
+ * regex engine.
+ *
+ * Syntax:
+ *   ?          any one character
+ *   [ACGT]     one character of the set
+ *   [a-z0-9_]  ranges inside a set
+ *   [^0-9]     one character not in the set
+ *   \?  \[  \\ the character itself (any character can be escaped, also inside a set)
+ *
+ * Every pattern position covers exactly one text character, so the pattern is
+ * compiled into Shift-Or masks (one per character class, see ShiftOr) and runs
+ * at the same speed as an exact Shift-Or search. Characters named in the pattern
+ * get their own class; every other character shares class 0, accepted only by
+ * '?' and negated sets. Ranges are expanded into the class table, so a pattern may
+ * name at most MAX_NAMED_CHARS distinct characters.
+ *
+ * Not registered in SUBCLASSES: '?' and '[' mean something else to the exact
+ * engines, so it is not run on the JSON test cases.
+ */
+public class WildcardSearch extends Solution {
+    static final int MAX_NAMED_CHARS = 4096;
+
+    public WildcardSearch() {
+    }
+
+    @Override
+    public void Solve(String text, String pattern, MatchSink sink) {
+        compile(pattern).search(text, sink);
+    }
+
+    /**
+     * Parse the pattern and build its masks
+     * @throws IllegalArgumentException If the syntax is invalid or a range is too large
+     */
+    @Override
+    public CompiledPattern compile(String pattern) {
+        List<Position> positions = parse(pattern);
+        int m = positions.size();
+
+        // Give every named character a class
+        CharIntMap charClass = new CharIntMap(0);
+        StringBuilder named = new StringBuilder();
+        for (Position position : positions) {
+            for (char c : position.chars) {
+                if (charClass.get(c) == 0) {
+                    named.append(c);
+                    charClass.put(c, named.length());
+                }
+            }
+        }
+
+        int words = ShiftOrPattern.wordsFor(m);
+        long[] masks = new long[(named.length() + 1) * words];
+        Arrays.fill(masks, ~0L);
+        for (int j = 0; j < m; j++) {
+            Position position = positions.get(j);
+            long bit = 1L << (j & 63);
+            if (position.negated) {
+                masks[j >>> 6] &= ~bit; // Class 0: characters the pattern never names
+            }
+            for (int c = 1; c <= named.length(); c++) {
+                if (position.accepts(named.charAt(c - 1))) {
+                    masks[c * words + (j >>> 6)] &= ~bit;
+                }
+            }
+        }
+        return new ShiftOrPattern(pattern, charClass, m, masks);
+    }
+
+    /**
+     * One pattern position: the set of named characters, possibly negated ('?' is an empty negated set)
+     */
+    private static final class Position {
+        final char[] chars; // Sorted
+        final boolean negated;
+
+        Position(char[] chars, boolean negated) {
+            this.chars = chars;
+            this.negated = negated;
+            Arrays.sort(this.chars);
+        }
+
+        boolean accepts(char c) {
+            return negated != (Arrays.binarySearch(chars, c) >= 0);
+        }
+    }
+
+    private static List<Position> parse(String pattern) {
+        List<Position> positions = new ArrayList<>();
+        int namedChars = 0;
+        int i = 0;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i++);
+            if (c == '?') {
+                positions.add(new Position(new char[0], true));
+            } else if (c == '[') {
+                boolean negated = i < pattern.length() && pattern.charAt(i) == '^';
+                if (negated) {
+                    i++;
+                }
+                StringBuilder set = new StringBuilder();
+                boolean closed = false;
+                while (i < pattern.length()) {
+                    char first = pattern.charAt(i++);
+                    if (first == ']') {
+                        closed = true;
+                        break;
+                    }
+                    if (first == '\\') {
+                        first = escaped(pattern, i++);
+                    }
+                    char last = first;
+                    if (i + 1 < pattern.length() && pattern.charAt(i) == '-' && pattern.charAt(i + 1) != ']') {
+                        i++;
+                        last = pattern.charAt(i++);
+                        if (last == '\\') {
+                            last = escaped(pattern, i++);
+                        }
+                        if (last < first) {
+                            throw new IllegalArgumentException("Invalid range " + first + "-" + last + " in: " + pattern);
+                        }
+                    }
+                    namedChars += last - first + 1;
+                    if (namedChars > MAX_NAMED_CHARS) {
+                        throw new IllegalArgumentException("Character classes name more than " + MAX_NAMED_CHARS
+                                + " characters: " + pattern);
+                    }
+                    for (char x = first; x <= last && x >= first; x++) {
+                        set.append(x);
+                    }
+                }
+                if (!closed) {
+                    throw new IllegalArgumentException("Unterminated '[' in: " + pattern);
+                }
+                positions.add(new Position(set.toString().toCharArray(), negated));
+            } else {
+                if (c == '\\') {
+                    c = escaped(pattern, i++);
+                }
+                namedChars++;
+                positions.add(new Position(new char[]{c}, false));
+            }
+        }
+        return positions;
+    }
+
+    private static char escaped(String pattern, int i) {
+        if (i >= pattern.length()) {
+            throw new IllegalArgumentException("Dangling '\\' at the end of: " + pattern);
+        }
+        return pattern.charAt(i);
+    }
+}
@@ -0,0 +1,147 @@
+import java.util.Arrays;
+
+/**
+ * Wu-Manber multi-pattern search: a Horspool-style skip over a window as long as
+ * the shortest pattern, driven by hashed blocks of B characters.
+ *
+ * SHIFT[h] is how far the window can move when its last block hashes to h. Blocks
+ * that end some pattern's window give a shift of 0; the patterns are then looked
+ * up in the bucket of h and filtered by the hash of the window's first block (the
+ * PREFIX table of the original paper, B chars, so cheaper than the comparison it
+ * saves) before being compared character by character.
+ *
+ * Memory is proportional to the pattern set: one int shift per table slot (the
+ * table has about two slots per pattern, capped at MAX_TABLE_SIZE), one bucket
+ * entry and one int prefix hash per pattern, plus the patterns themselves. Unlike an
+ * automaton, nothing grows with the total pattern length.
+ *
+ * Matches are reported in increasing order of their start index.
+ */
+public class WuManber extends MultiPatternMatcher {
+    static final int MAX_TABLE_SIZE = 1 << 20;
+    private static final int TYPICAL_ALPHABET = 26; // Letters of natural-language text
+
+    private final int minLength; // Window length: length of the shortest pattern
+    private final int block; // Block size B
+    private final int mask;
+    private final int[] shift;
+    private final int[] bucketStart; // Patterns of bucket h are bucketPatterns[bucketStart[h] .. bucketStart[h+1])
+    private final int[] bucketPatterns;
+    private final int[] prefixHash; // blockHash of the first B chars of each pattern
+
+    public WuManber(String... patterns) {
+        super(patterns);
+        int count = this.patterns.length;
+        int shortest = Integer.MAX_VALUE;
+        for (String pattern : this.patterns) {
+            shortest = Math.min(shortest, pattern.length());
+        }
+        this.minLength = count == 0 ? 1 : shortest;
+        this.block = blockSize(minLength, count);
+
+        // About two slots per pattern, and enough slots for the distinct blocks of a text alphabet
+        int slots = Math.max(count, Math.min(MAX_TABLE_SIZE / 2, pow(TYPICAL_ALPHABET, block)));
+        int tableSize = Integer.highestOneBit(Math.max(512, Math.min(MAX_TABLE_SIZE / 2, slots)) * 2);
+        this.mask = tableSize - 1;
+        this.shift = new int[tableSize];
+        Arrays.fill(shift, minLength - block + 1);
+
+        int[] bucketOf = new int[count];
+        this.bucketStart = new int[tableSize + 1];
+        this.prefixHash = new int[count];
+        for (int id = 0; id < count; id++) {
+            String pattern = this.patterns[id];
+            for (int end = block - 1; end < minLength; end++) {
+                int h = blockHash(pattern, end);
+                shift[h] = Math.min(shift[h], minLength - 1 - end);
+            }
+            bucketOf[id] = blockHash(pattern, minLength - 1);
+            bucketStart[bucketOf[id] + 1]++;
+            prefixHash[id] = blockHash(pattern, block - 1);
+        }
+
+        // Counting sort of pattern ids by bucket
+        for (int h = 0; h < tableSize; h++) {
+            bucketStart[h + 1] += bucketStart[h];
+        }
+        this.bucketPatterns = new int[count];
+        int[] next = Arrays.copyOf(bucketStart, tableSize);
+        for (int id = 0; id < count; id++) {
+            bucketPatterns[next[bucketOf[id]]++] = id;
+        }
+    }
+
+    @Override
+    public void search(String text, MultiMatchSink sink) {
+        int n = text.length();
+        if (patterns.length == 0) {
+            return;
+        }
+        int end = minLength - 1; // Index of the last char of the current window
+        while (end < n) {
+            int h = blockHash(text, end);
+            int s = shift[h];
+            if (s > 0) {
+                end += s;
+                continue;
+            }
+
+            int start = end - minLength + 1;
+            int prefix = blockHash(text, start + block - 1);
+            for (int k = bucketStart[h]; k < bucketStart[h + 1]; k++) {
+                int id = bucketPatterns[k];
+                String pattern = patterns[id];
+                if (prefixHash[id] == prefix
+                        && start + pattern.length() <= n
+                        && text.regionMatches(start, pattern, 0, pattern.length())
+                        && !sink.onMatch(id, start)) {
+                    return;
+                }
+            }
+            end++;
+        }
+    }
+
+    /**
+     * Wu and Manber's rule B = log_c(2 * m * k): the smallest block (2 to 4 chars)
+     * whose distinct values outnumber the blocks taken by the k patterns' windows,
+     * so most blocks of the text still give a non-zero shift
+     */
+    static int blockSize(int minLength, int count) {
+        long windowBlocks = 2L * minLength * count;
+        int block = 2;
+        while (block < 4 && pow(TYPICAL_ALPHABET, block) < windowBlocks) {
+            block++;
+        }
+        return Math.min(minLength, block);
+    }
+
+    private static int pow(int base, int exponent) {
+        int result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= base;
+        }
+        return result;
+    }
+
+    /**
+     * Hash of the block of B chars ending at index end
+     */
+    private int blockHash(String s, int end) {
+        int h = 0;
+        for (int i = end - block + 1; i <= end; i++) {
+            h = h * 31 + s.charAt(i);
+        }
+        return (h ^ (h >>> 11)) & mask;
+    }
+
+    public int getBlockSize() {
+        return block;
+    }
+
+    @Override
+    public long estimatedSize() {
+        return super.estimatedSize() + 4L * (shift.length + bucketStart.length + bucketPatterns.length)
+                + 4L * prefixHash.length;
+    }
+}
@@ -0,0 +1,63 @@
+import java.util.Arrays;
+
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD search kernel for GoCrazy, built on the incubating Vector API.
+ *
+ * Compares the first and the last pattern character against a whole vector of
+ * text positions at once (16 chars with AVX2, 32 with AVX-512), ANDs the two
+ * results into a candidate bitmask, and only verifies the middle of the pattern
+ * at candidate positions.
+ *
+ * This file needs --add-modules jdk.incubator.vector to compile and run, so it is
+ * kept out of src/*.java; test.sh compiles it when the module is available and
+ * GoCrazy falls back to its scalar path otherwise.
+ */
+public class VectorKernel implements FirstLastFilter.Kernel {
+    private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+
+    public VectorKernel() {
+    }
+
+    @Override
+    public void search(char[] text, int length, char[] pattern, MatchSink sink) {
+        int n = length;
+        int m = pattern.length;
+        int lanes = SPECIES.length();
+        ShortVector first = ShortVector.broadcast(SPECIES, (short) pattern[0]);
+        ShortVector last = ShortVector.broadcast(SPECIES, (short) pattern[m - 1]);
+
+        // Both loads (at i and at i+m-1) must stay inside the text
+        int bound = n - m + 1 - lanes;
+        int i = 0;
+        for (; i <= bound; i += lanes) {
+            ShortVector head = ShortVector.fromCharArray(SPECIES, text, i);
+            ShortVector tail = ShortVector.fromCharArray(SPECIES, text, i + m - 1);
+            VectorMask<Short> candidates = head.eq(first).and(tail.eq(last));
+            long bits = candidates.toLong();
+            while (bits != 0) {
+                int pos = i + Long.numberOfTrailingZeros(bits);
+                if (middleMatches(text, pattern, pos) && !sink.onMatch(pos)) {
+                    return;
+                }
+                bits &= bits - 1;
+            }
+        }
+
+        // Scalar tail for the last few positions
+        for (; i <= n - m; i++) {
+            if (text[i] == pattern[0] && text[i + m - 1] == pattern[m - 1]
+                    && middleMatches(text, pattern, i) && !sink.onMatch(i)) {
+                return;
+            }
+        }
+    }
+
+    private static boolean middleMatches(char[] text, char[] pattern, int pos) {
+        int m = pattern.length;
+        return m <= 2 || Arrays.equals(text, pos + 1, pos + m - 1, pattern, 1, m - 1);
+    }
+}
@@ -9,8 +9,17 @@ javac src/*.java
 if [ $? -eq 0 ]; then
     echo "Compilation successful!"
     echo ""
+
+    # Optional SIMD kernel for GoCrazy (needs the incubating Vector API module)
+    JAVA_OPTS=""
+    if java --list-modules 2>/dev/null | grep -q "^jdk.incubator.vector"; then
+        if javac --add-modules jdk.incubator.vector -cp src -d src src/vector/VectorKernel.java 2>/dev/null; then
+            JAVA_OPTS="--add-modules jdk.incubator.vector"
+        fi
+    fi
+
     cd src
-    java ManualTest "$@"
+    java $JAVA_OPTS ManualTest "$@" 2> >(grep -v "Using incubator modules" >&2)
 else
     echo "Compilation failed! Please fix the errors and try again."
     exit 1